@@ -0,0 +1,162 @@
+package com.startupocean.Startup.Collaboration.Portal.config;
+
+import com.startupocean.Startup.Collaboration.Portal.service.LogoStore;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jpa.autoconfigure.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Moves logo bytes that older versions kept in the database into the {@link LogoStore}:
+ * first {@code company_logos.data}, then the original {@code companies.logo} column.
+ * Runs before Hibernate starts, so no request is served while logos are half moved.
+ *
+ * Each image is streamed into the store and its hash recorded in {@code company_logos};
+ * the bytes are copied to {@code logo_migration_backup} and the column dropped, all in
+ * one transaction. Once the moved logos are confirmed to be served, the backup table
+ * can be dropped by hand. Does nothing once both columns are gone.
+ */
+@Configuration
+@Slf4j
+public class CompanyLogoMigration {
+
+    static final String COLUMN_EXISTS_SQL = """
+            SELECT EXISTS (
+                SELECT 1 FROM information_schema.columns
+                WHERE table_schema = current_schema()
+                AND table_name = ?
+                AND column_name = ?
+            )
+            """;
+
+    static final String SET_HASH_SQL = """
+            UPDATE company_logos SET hash = ?, size = ?, updated_at = now()
+            WHERE company_id = ?
+            """;
+
+    static final String INSERT_HASH_SQL = """
+            INSERT INTO company_logos (hash, size, company_id, created_at, updated_at)
+            VALUES (?, ?, ?, now(), now())
+            ON CONFLICT (company_id) DO NOTHING
+            """;
+
+    /** Hibernate has not created or updated {@code company_logos} yet at this point. */
+    static final String CREATE_LOGOS_SQL = """
+            CREATE TABLE IF NOT EXISTS company_logos (
+                company_id BIGINT PRIMARY KEY,
+                hash VARCHAR(64),
+                size BIGINT,
+                created_at TIMESTAMP(6),
+                updated_at TIMESTAMP(6)
+            )
+            """;
+
+    static final String CREATE_BACKUP_SQL = """
+            CREATE TABLE IF NOT EXISTS logo_migration_backup (
+                source VARCHAR(64) NOT NULL,
+                company_id BIGINT NOT NULL,
+                data BYTEA NOT NULL,
+                backed_up_at TIMESTAMP NOT NULL DEFAULT now()
+            )
+            """;
+
+    private static final int FETCH_SIZE = 50;
+
+    private final DatabasePlatform databasePlatform;
+    private final JdbcTemplate jdbcTemplate;
+    private final LogoStore logoStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public CompanyLogoMigration(DatabasePlatform databasePlatform, JdbcTemplate jdbcTemplate, LogoStore logoStore) {
+        this.databasePlatform = databasePlatform;
+        this.jdbcTemplate = jdbcTemplate;
+        this.logoStore = logoStore;
+        // the JPA transaction manager needs the EntityManagerFactory, which waits for this
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    }
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor companyLogoMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(CompanyLogoMigration.class);
+    }
+
+    @PostConstruct
+    public void migrate() {
+
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+
+            if (columnExists("company_logos", "data")) {
+                jdbcTemplate.execute("ALTER TABLE company_logos ADD COLUMN IF NOT EXISTS hash VARCHAR(64)");
+                jdbcTemplate.execute("ALTER TABLE company_logos ADD COLUMN IF NOT EXISTS size BIGINT");
+                backUp("company_logos.data", "SELECT company_id, data FROM company_logos WHERE data IS NOT NULL");
+                int moved = moveToStore("SELECT company_id, data FROM company_logos WHERE data IS NOT NULL",
+                        SET_HASH_SQL);
+                // rows whose bytes were not a supported image are left without a hash
+                jdbcTemplate.update("DELETE FROM company_logos WHERE hash IS NULL");
+                jdbcTemplate.execute("ALTER TABLE company_logos DROP COLUMN data");
+                log.info("Moved {} logos from company_logos.data into the logo store", moved);
+            }
+
+            if (columnExists("companies", "logo")) {
+                jdbcTemplate.execute(CREATE_LOGOS_SQL);
+                backUp("companies.logo", "SELECT company_id, logo FROM companies WHERE logo IS NOT NULL");
+                int moved = moveToStore("SELECT company_id, logo FROM companies WHERE logo IS NOT NULL",
+                        INSERT_HASH_SQL);
+                jdbcTemplate.execute("ALTER TABLE companies DROP COLUMN logo");
+                log.info("Moved {} logos from companies.logo into the logo store", moved);
+            }
+        });
+    }
+
+    /** Keeps the {@code (company_id, bytes)} rows of {@code selectSql} before their column is dropped. */
+    private void backUp(String source, String selectSql) {
+        jdbcTemplate.execute(CREATE_BACKUP_SQL);
+        int rows = jdbcTemplate.update("INSERT INTO logo_migration_backup (source, company_id, data) "
+                + "SELECT '" + source + "', s.* FROM (" + selectSql + ") s");
+        log.info("Backed up {} logos from {} into logo_migration_backup", rows, source);
+    }
+
+    private boolean columnExists(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(COLUMN_EXISTS_SQL, Boolean.class, table, column));
+    }
+
+    /**
+     * Streams {@code (company_id, bytes)} rows into the store and records each hash with
+     * {@code recordSql}, which takes hash, size and company id.
+     */
+    private int moveToStore(String selectSql, String recordSql) {
+
+        int[] moved = new int[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    selectSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            long companyId = rs.getLong(1);
+            try (InputStream in = rs.getBinaryStream(2)) {
+                LogoStore.StoredLogo stored = logoStore.store(in);
+                jdbcTemplate.update(recordSql, stored.getHash(), stored.getSize(), companyId);
+                moved[0]++;
+            } catch (IllegalArgumentException e) {
+                log.warn("Dropping logo of company {}: {}", companyId, e.getMessage());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return moved[0];
+    }
+}
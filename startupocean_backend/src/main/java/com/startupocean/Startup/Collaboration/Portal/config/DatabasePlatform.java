@@ -0,0 +1,38 @@
+package com.startupocean.Startup.Collaboration.Portal.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Tells features that rely on PostgreSQL-only SQL (tsvector, pg_trgm, SKIP LOCKED ...)
+ * whether they are running against PostgreSQL or the H2 test database.
+ */
+@Component
+@Slf4j
+public class DatabasePlatform {
+
+    private final boolean postgres;
+
+    public DatabasePlatform(DataSource dataSource) {
+        this.postgres = detectPostgres(dataSource);
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+
+    private static boolean detectPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            log.info("Database platform detected: {}", product);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (SQLException e) {
+            log.warn("Could not detect database platform, assuming non-PostgreSQL", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.startupocean.Startup.Collaboration.Portal.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@link WorkloadExecutor}s background work runs on, one per kind of work:
+ * <ul>
+ *   <li>mail: sends queued priority mail; a full queue drops the oldest wake-up, since
+ *       any wake-up still queued sends everything committed before it</li>
+ *   <li>bulk mail: drains the bulk outbox lane for each poll, off the scheduler thread
+ *       the other scheduled jobs share; a full queue drops the oldest poll the same way</li>
+ *   <li>activity: saves tracked page activity; a full queue sheds the event</li>
+ *   <li>media: resizes logos; a full queue sheds the work, which is redone on demand</li>
+ *   <li>maintenance: rebuilds in-memory indexes and snapshots; a full queue makes the
+ *       scheduler thread run the rebuild itself, as rebuilds must not be lost</li>
+ * </ul>
+ * Mail and activity wait on the database and SMTP rather than the CPU, so they can run
+ * each task on a virtual thread instead.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String MAIL = "mailExecutor";
+    public static final String BULK_MAIL = "bulkMailExecutor";
+    public static final String ACTIVITY = "activityExecutor";
+    public static final String MEDIA = "mediaExecutor";
+    public static final String MAINTENANCE = "maintenanceExecutor";
+
+    @Bean(MAIL)
+    public WorkloadExecutor mailExecutor(MeterRegistry meterRegistry,
+                                         @Value("${executors.mail.threads:2}") int threads,
+                                         @Value("${executors.mail.queue-capacity:2}") int queueCapacity,
+                                         @Value("${executors.mail.virtual-threads:false}") boolean virtualThreads) {
+        return new WorkloadExecutor("mail", threads, queueCapacity,
+                WorkloadExecutor.Saturation.DROP_OLDEST, virtualThreads, meterRegistry);
+    }
+
+    @Bean(BULK_MAIL)
+    public WorkloadExecutor bulkMailExecutor(MeterRegistry meterRegistry,
+                                             @Value("${executors.bulk-mail.threads:1}") int threads,
+                                             @Value("${executors.bulk-mail.queue-capacity:1}") int queueCapacity) {
+        return new WorkloadExecutor("bulk-mail", threads, queueCapacity,
+                WorkloadExecutor.Saturation.DROP_OLDEST, false, meterRegistry);
+    }
+
+    @Bean(ACTIVITY)
+    public WorkloadExecutor activityExecutor(MeterRegistry meterRegistry,
+                                             @Value("${executors.activity.threads:2}") int threads,
+                                             @Value("${executors.activity.queue-capacity:1000}") int queueCapacity,
+                                             @Value("${executors.activity.virtual-threads:false}") boolean virtualThreads) {
+        return new WorkloadExecutor("activity", threads, queueCapacity,
+                WorkloadExecutor.Saturation.SHED, virtualThreads, meterRegistry);
+    }
+
+    @Bean(MEDIA)
+    public WorkloadExecutor mediaExecutor(MeterRegistry meterRegistry,
+                                          @Value("${executors.media.threads:2}") int threads,
+                                          @Value("${executors.media.queue-capacity:100}") int queueCapacity) {
+        return new WorkloadExecutor("media", threads, queueCapacity,
+                WorkloadExecutor.Saturation.SHED, false, meterRegistry);
+    }
+
+    @Bean(MAINTENANCE)
+    public WorkloadExecutor maintenanceExecutor(MeterRegistry meterRegistry,
+                                                @Value("${executors.maintenance.threads:1}") int threads,
+                                                @Value("${executors.maintenance.queue-capacity:10}") int queueCapacity) {
+        return new WorkloadExecutor("maintenance", threads, queueCapacity,
+                WorkloadExecutor.Saturation.CALLER_RUNS, false, meterRegistry);
+    }
+}
@@ -81,6 +81,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/activity/**").permitAll()
                         .requestMatchers("/activity/**").permitAll()
 
+                        // Admin
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
+
                         // Companies
                         .requestMatchers(HttpMethod.GET, "/companies/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/companies/**").permitAll()
@@ -101,6 +104,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/events/**").permitAll()
                         .requestMatchers("/events/**").authenticated()
                         .requestMatchers("/api/events/**").authenticated()
+
+                        // Logo uploads need the owner; serving logos stays public
+                        .requestMatchers(HttpMethod.POST, "/upload/**").authenticated()
                         .requestMatchers("/auth/**", "/upload/**", "/uploads/**").permitAll()
                         .requestMatchers("/auth/**",
                                 "/upload/**",
@@ -0,0 +1,71 @@
+package com.startupocean.Startup.Collaboration.Portal.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jpa.autoconfigure.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Prepares the pooled id sequences of the write-heavy tables before Hibernate starts.
+ *
+ * These tables used to take their ids from identity columns, which forces one INSERT
+ * round trip per row. They now draw blocks of 50 ids from {@code <table>_seq}; on an
+ * existing PostgreSQL database each sequence is created with the matching increment and
+ * moved past the highest id already in use, so new rows cannot collide with old ones.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceIdMigration {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    /** Table and id column of every entity mapped to {@code <table>_seq}. */
+    static final String[][] TABLES = {
+            {"companies", "company_id"},
+            {"services", "service_id"},
+            {"offerings", "offering_id"},
+            {"social_links", "social_link_id"},
+            {"messages", "message_id"},
+            {"user_activities", "activity_id"}
+    };
+
+    private final DatabasePlatform databasePlatform;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor sequenceIdMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SequenceIdMigration.class);
+    }
+
+    @PostConstruct
+    public void migrate() {
+
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+
+        for (String[] table : TABLES) {
+            String name = table[0];
+            String idColumn = table[1];
+            String sequence = name + "_seq";
+
+            Boolean exists = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+            if (!Boolean.TRUE.equals(exists)) {
+                continue;
+            }
+
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence
+                    + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+            jdbcTemplate.query("SELECT setval('" + sequence + "', GREATEST(MAX(" + idColumn + "), "
+                    + "(SELECT last_value FROM " + sequence + "))) FROM " + name
+                    + " HAVING MAX(" + idColumn + ") IS NOT NULL", rs -> {
+                log.info("Sequence {} moved to {}", sequence, rs.getLong(1));
+            });
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.startupocean.Startup.Collaboration.Portal.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A named executor for one kind of background work, so a burst of one kind cannot
+ * delay another or queue without limit.
+ *
+ * By default it is a pool of {@code threads} platform threads with a queue of
+ * {@code queueCapacity} tasks. Past that the {@link Saturation} policy decides. In
+ * virtual-thread mode every task gets its own virtual thread and at most
+ * {@code threads + queueCapacity} run at once; past that the policy applies the same
+ * way, except that DROP_OLDEST drops the new task since nothing is queued. Virtual
+ * threads need Java 21; on older runtimes the pool is used instead.
+ *
+ * Published with the tag {@code name}: {@code executor.active} (tasks running),
+ * {@code executor.queued} (tasks waiting), {@code executor.idle} (time from submission
+ * to start) and {@code executor.rejected} (tasks shed or dropped).
+ *
+ * On shutdown, queued and running tasks get up to ten seconds to finish.
+ *
+ * Deliberately not a {@link java.util.concurrent.Executor} bean, so Spring Boot still
+ * provides its own executor for MVC async requests.
+ */
+@Slf4j
+public class WorkloadExecutor {
+
+    public enum Saturation {
+        /** The submitting thread runs the task itself, which slows the submitter down. */
+        CALLER_RUNS,
+        /** The longest-waiting task is dropped to make room. */
+        DROP_OLDEST,
+        /** The task is refused with a {@link TaskRejectedException}. */
+        SHED
+    }
+
+    private final Saturation saturation;
+    private final ThreadPoolTaskExecutor pool;
+    private final SimpleAsyncTaskExecutor virtual;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer idle;
+    private final Counter rejected;
+
+    public WorkloadExecutor(String name, int threads, int queueCapacity, Saturation saturation,
+                            boolean virtualThreads, MeterRegistry meterRegistry) {
+        this.saturation = saturation;
+        this.rejected = Counter.builder("executor.rejected")
+                .description("Tasks shed or dropped because the executor was saturated")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.idle = Timer.builder("executor.idle")
+                .description("Time tasks waited between submission and start")
+                .tag("name", name)
+                .publishPercentiles(0.99)
+                .register(meterRegistry);
+
+        this.virtual = virtualThreads ? virtualExecutor(name, threads + queueCapacity) : null;
+        if (virtual == null) {
+            pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(threads);
+            pool.setMaxPoolSize(threads);
+            pool.setQueueCapacity(queueCapacity);
+            pool.setThreadNamePrefix(name + "-");
+            pool.setRejectedExecutionHandler(rejectionHandler(saturation));
+            pool.setWaitForTasksToCompleteOnShutdown(true);
+            pool.setAwaitTerminationSeconds(10);
+            pool.initialize();
+        } else {
+            pool = null;
+        }
+
+        Gauge.builder("executor.active", active, AtomicInteger::get)
+                .description("Tasks running")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("executor.queued", this, WorkloadExecutor::getQueued)
+                .description("Tasks waiting for a thread")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code task} in the background, or as the saturation policy says.
+     *
+     * @throws TaskRejectedException if the executor is saturated and its policy is SHED
+     */
+    public void execute(Runnable task) {
+
+        long submittedAt = System.nanoTime();
+        Runnable timed = () -> {
+            idle.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+
+        if (pool != null) {
+            pool.execute(timed);
+            return;
+        }
+        try {
+            virtual.execute(timed);
+        } catch (TaskRejectedException e) {
+            switch (saturation) {
+                case CALLER_RUNS -> timed.run();
+                case DROP_OLDEST -> rejected.increment();
+                case SHED -> {
+                    rejected.increment();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public int getQueued() {
+        return pool != null ? pool.getQueueSize() : 0;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        } else {
+            virtual.close();
+        }
+    }
+
+    private RejectedExecutionHandler rejectionHandler(Saturation saturation) {
+        RejectedExecutionHandler policy = switch (saturation) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DROP_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case SHED -> new ThreadPoolExecutor.AbortPolicy();
+        };
+        if (saturation == Saturation.CALLER_RUNS) {
+            return policy;
+        }
+        return (task, executor) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, executor);
+        };
+    }
+
+    private static SimpleAsyncTaskExecutor virtualExecutor(String name, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-");
+        try {
+            executor.setVirtualThreads(true);
+        } catch (UnsupportedOperationException e) {
+            log.warn("Virtual threads need Java 21, the {} executor uses a thread pool instead", name);
+            return null;
+        }
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setRejectTasksWhenLimitReached(true);
+        return executor;
+    }
+}
@@ -1,10 +1,12 @@
 package com.startupocean.Startup.Collaboration.Portal.controller;
 
 import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion;
 import com.startupocean.Startup.Collaboration.Portal.service.CityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/cities")
@@ -22,7 +24,11 @@ public class CityController {
 
     // get all cities
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllCities() {
+    public ResponseEntity<ApiResponse> getAllCities(WebRequest webRequest) {
+        ResourceVersion version = cityService.getCitiesVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(cityService.getAllCities());
     }
 
@@ -2,13 +2,29 @@ package com.startupocean.Startup.Collaboration.Portal.controller;
 
 import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
 import com.startupocean.Startup.Collaboration.Portal.dto.CompanyRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.DigestPreference;
+import com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion;
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyDirectorySnapshot;
 import com.startupocean.Startup.Collaboration.Portal.service.CompanyService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/companies")
@@ -18,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 public class CompanyController {
 
     private final CompanyService companyService;
+    private final CompanyDirectorySnapshot companyDirectorySnapshot;
 
     @PostMapping
     public ResponseEntity<ApiResponse> createCompany(
@@ -62,6 +79,16 @@ public class CompanyController {
         return ResponseEntity.ok(response);
     }
 
+    @DeleteMapping("/{companyId}")
+    public ResponseEntity<ApiResponse> deleteCompany(@PathVariable Long companyId) {
+        log.info("Deleting company {}", companyId);
+
+        ApiResponse response = companyService.deleteCompany(companyId);
+        return ResponseEntity
+                .status(response.isSuccess() ? HttpStatus.OK : HttpStatus.FORBIDDEN)
+                .body(response);
+    }
+
     @GetMapping("/my-company")
     public ResponseEntity<ApiResponse> getMyCompany() {
         log.info("Fetching logged-in user company");
@@ -69,22 +96,90 @@ public class CompanyController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/my-company/digest")
+    public ResponseEntity<ApiResponse> getMyDigestPreference() {
+        return ResponseEntity.ok(companyService.getMyDigestPreference());
+    }
+
+    /** How often the company gets the digest of newly joined companies: DAILY, WEEKLY or NEVER. */
+    @PutMapping("/my-company/digest")
+    public ResponseEntity<ApiResponse> updateMyDigestPreference(@Valid @RequestBody DigestPreference request) {
+        ApiResponse response = companyService.updateMyDigestPreference(request);
+        return ResponseEntity
+                .status(response.isSuccess() ? HttpStatus.OK : HttpStatus.NOT_FOUND)
+                .body(response);
+    }
+
+    /** Served from the pre-serialized directory snapshot; see {@link CompanyDirectorySnapshot}. */
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllCompanies() {
-        return ResponseEntity.ok(companyService.getAllCompanies());
+    public void getAllCompanies(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        CompanyDirectorySnapshot.Snapshot snapshot = companyDirectorySnapshot.current();
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (new ServletWebRequest(request, response)
+                .checkNotModified(gzip ? snapshot.getGzipEtag() : snapshot.getEtag())) {
+            return;
+        }
+
+        ByteBuffer body = gzip ? snapshot.getGzip() : snapshot.getIdentity();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLengthLong(body.remaining());
+
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse> getCompaniesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return toPageResponse(companyService.getCompaniesPage(cursor, size));
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamCompanies() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(companyService::streamCompanies);
     }
 
     @GetMapping("/public/{companyId}")
-    public ResponseEntity<ApiResponse> getCompanyById(@PathVariable Long companyId) {
+    public ResponseEntity<ApiResponse> getCompanyById(@PathVariable Long companyId, WebRequest webRequest) {
         log.info("Fetching company by ID {}", companyId);
+
+        ResourceVersion version = companyService.getCompanyVersion(companyId);
+        if (version != null && webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         ApiResponse response = companyService.getCompanyById(companyId);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse> searchCompanies(@RequestParam String keyword) {
-        log.info("Searching companies with keyword {}", keyword);
-        ApiResponse response = companyService.searchCompanies(keyword);
+    public ResponseEntity<ApiResponse> searchCompanies(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "like") String mode) {
+        log.info("Searching companies with keyword {} mode {}", keyword, mode);
+
+        CompanyService.SearchMode searchMode;
+        try {
+            searchMode = CompanyService.SearchMode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Unknown search mode: " + mode, null));
+        }
+
+        ApiResponse response = companyService.searchCompanies(keyword, searchMode);
         return ResponseEntity.ok(response);
     }
 
@@ -94,4 +189,90 @@ public class CompanyController {
         ApiResponse response = companyService.searchByOffering(offering);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(companyService.suggest(prefix, limit));
+    }
+
+    @GetMapping("/search/page")
+    public ResponseEntity<ApiResponse> searchCompaniesPage(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Searching companies page with keyword {}", keyword);
+        return toPageResponse(companyService.searchCompaniesPage(keyword, cursor, size));
+    }
+
+    @GetMapping("/search/stream")
+    public ResponseEntity<StreamingResponseBody> streamSearchCompanies(@RequestParam String keyword) {
+        log.info("Streaming companies with keyword {}", keyword);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> companyService.streamSearchCompanies(keyword, out));
+    }
+
+    @GetMapping("/search/offering/page")
+    public ResponseEntity<ApiResponse> searchByOfferingPage(
+            @RequestParam String offering,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Searching companies page by offering {}", offering);
+        return toPageResponse(companyService.searchByOfferingPage(offering, cursor, size));
+    }
+
+    @GetMapping("/search/offering/stream")
+    public ResponseEntity<StreamingResponseBody> streamSearchByOffering(@RequestParam String offering) {
+        log.info("Streaming companies by offering {}", offering);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> companyService.streamSearchByOffering(offering, out));
+    }
+
+    private ResponseEntity<ApiResponse> toPageResponse(ApiResponse response) {
+        return ResponseEntity
+                .status(response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip: listed with a non-zero quality, or covered by
+     * {@code *} without being listed. {@code gzip;q=0} refuses it.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = accepted;
+            } else if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    /** The q parameter of a content coding, 1 when missing and 0 when unreadable. */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
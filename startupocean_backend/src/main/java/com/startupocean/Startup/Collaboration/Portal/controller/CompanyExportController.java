@@ -0,0 +1,101 @@
+package com.startupocean.Startup.Collaboration.Portal.controller;
+
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/admin/companies")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Slf4j
+public class CompanyExportController {
+
+    private static final String EXPORT_SLOT = CompanyExportController.class.getName() + ".SLOT";
+
+    private final CompanyExportService companyExportService;
+
+    /**
+     * Whole directory as NDJSON or CSV, optionally gzipped, for partner downloads.
+     * Answers 503 while {@code company.export.max-concurrent} exports are running.
+     * The slot is given back when the body finishes, or when the async request ends
+     * without it, e.g. timed out before the body started.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCompanies(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        CompanyExportService.Format exportFormat;
+        try {
+            exportFormat = CompanyExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (!companyExportService.tryAcquire()) {
+            log.warn("Company export refused, too many exports running");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "60")
+                    .build();
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releaseSlot = () -> {
+            if (released.compareAndSet(false, true)) {
+                companyExportService.release();
+            }
+        };
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_SLOT,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        releaseSlot.run();
+                    }
+                });
+
+        String fileName = "companies." + exportFormat.name().toLowerCase(Locale.ROOT) + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == CompanyExportService.Format.CSV
+                        ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                        : MediaType.parseMediaType("application/x-ndjson");
+
+        log.info("Exporting companies as {}{}", exportFormat, gzip ? " (gzip)" : "");
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(out -> {
+                    try {
+                        if (!gzip) {
+                            companyExportService.export(exportFormat, out);
+                            return;
+                        }
+                        GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                        companyExportService.export(exportFormat, compressed);
+                        compressed.finish();
+                    } finally {
+                        releaseSlot.run();
+                    }
+                });
+    }
+}
@@ -0,0 +1,51 @@
+package com.startupocean.Startup.Collaboration.Portal.controller;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyImportResult;
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/admin/companies")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Slf4j
+public class CompanyImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final CompanyImportService companyImportService;
+
+    /** Streams a CSV or NDJSON upload straight from the request body into the import. */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public ResponseEntity<ApiResponse> importCompanies(
+            @RequestHeader("Content-Type") MediaType contentType,
+            HttpServletRequest request) throws IOException {
+
+        CompanyImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? CompanyImportService.Format.CSV
+                : CompanyImportService.Format.NDJSON;
+
+        log.info("Company import started ({})", format);
+
+        try {
+            CompanyImportResult result = companyImportService.importCompanies(request.getInputStream(), format);
+            String message = result.getImported() + " companies imported, " + result.getFailed() + " rejected";
+            return ResponseEntity.ok(new ApiResponse(result.getFailed() == 0, message, result));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage(), null));
+        }
+    }
+}
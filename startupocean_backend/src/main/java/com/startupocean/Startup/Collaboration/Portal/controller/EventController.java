@@ -2,12 +2,14 @@ package com.startupocean.Startup.Collaboration.Portal.controller;
 
 import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
 import com.startupocean.Startup.Collaboration.Portal.dto.EventRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion;
 import com.startupocean.Startup.Collaboration.Portal.service.EventService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/events")
@@ -33,12 +35,20 @@ public class EventController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllEvents() {
+    public ResponseEntity<ApiResponse> getAllEvents(WebRequest webRequest) {
+        ResourceVersion version = eventService.getEventsVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(eventService.getAllEvents());
     }
 
     @GetMapping("/{eventId}")
-    public ResponseEntity<ApiResponse> getEventById(@PathVariable Long eventId) {
+    public ResponseEntity<ApiResponse> getEventById(@PathVariable Long eventId, WebRequest webRequest) {
+        ResourceVersion version = eventService.getEventVersion(eventId);
+        if (version != null && webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(eventService.getEventById(eventId));
     }
 
@@ -1,53 +1,83 @@
 package com.startupocean.Startup.Collaboration.Portal.controller;
 
-import com.startupocean.Startup.Collaboration.Portal.entity.Company;
-import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyLogoService;
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyResponseAssembler;
+import com.startupocean.Startup.Collaboration.Portal.service.LogoStore;
+import com.startupocean.Startup.Collaboration.Portal.service.LogoVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
 @RestController
 @RequestMapping("/upload")
 @RequiredArgsConstructor
 @Slf4j
 public class FileUploadController {
 
-    private final CompanyRepository companyRepository;
+    /** Logos are content-addressed, so a URL always names the same bytes. */
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final CompanyLogoService companyLogoService;
+    private final LogoStore logoStore;
+    private final LogoVariantService logoVariantService;
 
     @PostMapping("/logo/{companyId}")
     public ResponseEntity<?> uploadLogo(
             @PathVariable Long companyId,
             @RequestParam("file") MultipartFile file) {
 
-        log.info("Logo upload request received for companyId={}", companyId);
-
-        try {
-
-            Company company = companyRepository.findById(companyId)
-                    .orElseThrow(() -> {
-                        log.error("Company not found for id={}", companyId);
-                        return new RuntimeException("Company not found");
-                    });
+        log.info("Logo upload request received for companyId={} size={} bytes", companyId, file.getSize());
 
-            if (file.isEmpty()) {
-                log.warn("Uploaded file is empty for companyId={}", companyId);
-                return ResponseEntity.badRequest().body("File is empty");
-            }
+        if (file.isEmpty()) {
+            log.warn("Uploaded file is empty for companyId={}", companyId);
+            return ResponseEntity.badRequest().body("File is empty");
+        }
 
-            log.info("Uploading logo for company: {} (id={}) size={} bytes",
-                    company.getCompanyName(),
-                    companyId,
-                    file.getSize());
+        try (InputStream in = file.getInputStream()) {
 
-            company.setLogo(file.getBytes());
-            companyRepository.save(company);
+            companyLogoService.replaceLogo(companyId, in);
 
             log.info("Logo uploaded successfully for companyId={}", companyId);
 
             return ResponseEntity.ok("Logo uploaded successfully");
 
+        } catch (AccessDeniedException e) {
+
+            log.warn("Logo upload refused for companyId={}: {}", companyId, e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized");
+
+        } catch (IllegalArgumentException e) {
+
+            log.warn("Logo rejected for companyId={}: {}", companyId, e.getMessage());
+
+            return ResponseEntity.badRequest().body(e.getMessage());
+
         } catch (Exception e) {
 
             log.error("Logo upload failed for companyId={} error={}", companyId, e.getMessage(), e);
@@ -56,31 +86,143 @@ public class FileUploadController {
         }
     }
 
+    /** Redirects to the versioned URL of the company's current logo. */
     @GetMapping("/logo/{companyId}")
-    public ResponseEntity<byte[]> getLogo(@PathVariable Long companyId) {
+    public ResponseEntity<Void> getLogo(@PathVariable Long companyId,
+                                        @RequestParam(required = false) Integer size,
+                                        HttpServletRequest request) {
 
-        log.info("Logo fetch request received for companyId={}", companyId);
+        String hash = companyLogoService.findHash(companyId);
 
-        Company company = companyRepository.findById(companyId)
-                .orElseThrow(() -> {
-                    log.error("Company not found while fetching logo id={}", companyId);
-                    return new RuntimeException("Company not found");
-                });
+        if (hash == null) {
+            log.warn("Logo not found for companyId={}", companyId);
+            return ResponseEntity.notFound().build();
+        }
 
-        byte[] logo = company.getLogo();
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(versionedUri(request, hash, size))
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .build();
+    }
 
-        if (logo == null) {
-            log.warn("Logo not found in DB for companyId={}", companyId);
-            return ResponseEntity.notFound().build();
+    /**
+     * Serves a stored logo, or with {@code size} one of its {@link LogoVariantService#SIZES}
+     * variants, with an immutable cache lifetime and single byte-range support. A variant
+     * that is not generated yet is queued and the client is sent to the original for now.
+     */
+    @GetMapping("/logos/{hash}")
+    public void serveLogo(@PathVariable String hash,
+                          @RequestParam(required = false) Integer size,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+
+        if (size != null && !LogoVariantService.SIZES.contains(size)) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
         }
 
-        log.info("Logo fetched successfully for companyId={} size={} bytes",
-                companyId,
-                logo.length);
+        Path path = size == null ? logoStore.find(hash) : logoVariantService.findOrSubmit(hash, size);
+        if (path == null && size != null && logoStore.find(hash) != null) {
+            response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+            response.setHeader(HttpHeaders.LOCATION, versionedUri(request, hash, null).toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            return;
+        }
+        if (path == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        serveFile(path, size == null ? hash : hash + "-" + size, request, response);
+    }
+
+    /**
+     * Writes an immutable file. The body is handed to Tomcat's sendfile when the connector
+     * offers it and otherwise copied with {@link FileChannel#transferTo}, so it never passes
+     * through a heap buffer of its own size.
+     */
+    private static void serveFile(Path path,
+                                  String version,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+
+        String etag = "\"" + version + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+                try {
+                    List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                    // several ranges would need multipart/byteranges; the whole file is a valid answer
+                    if (ranges.size() == 1) {
+                        start = ranges.get(0).getRangeStart(length);
+                        end = ranges.get(0).getRangeEnd(length);
+                        if (start > end) {
+                            throw new IllegalArgumentException("Range starts after it ends");
+                        }
+                        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                    }
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+            }
+
+            MediaType contentType = sniff(channel);
+            response.setContentType(contentType != null
+                    ? contentType.toString()
+                    : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(end - start + 1);
+
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, path.toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    private static MediaType sniff(FileChannel channel) throws IOException {
+
+        ByteBuffer head = ByteBuffer.allocate(12);
+        int read;
+        do {
+            read = channel.read(head, head.position());
+        } while (read > 0 && head.hasRemaining());
+        return LogoStore.sniff(head.array(), head.position());
+    }
 
-        return ResponseEntity.ok()
-                .header("Content-Type", "image/*")
-                .body(logo);
+    private static URI versionedUri(HttpServletRequest request, String hash, Integer size) {
+        String url = request.getContextPath() + CompanyResponseAssembler.logoUrl(hash);
+        return URI.create(size != null ? url + "?size=" + size : url);
     }
 }
 
@@ -0,0 +1,14 @@
+package com.startupocean.Startup.Collaboration.Portal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyImportError {
+    private long line;
+    private String email;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.startupocean.Startup.Collaboration.Portal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyImportResult {
+    private int imported;
+    private int failed;
+    private List<CompanyImportError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+}
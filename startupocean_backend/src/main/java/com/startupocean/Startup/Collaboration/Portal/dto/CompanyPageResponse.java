@@ -0,0 +1,16 @@
+package com.startupocean.Startup.Collaboration.Portal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyPageResponse {
+    private List<CompanyResponse> companies;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,17 @@
+package com.startupocean.Startup.Collaboration.Portal.dto;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.NotificationPreference;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** How often a company gets the digest of newly joined companies. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DigestPreference {
+
+    @NotNull
+    private NotificationPreference.DigestFrequency frequency;
+}
@@ -0,0 +1,33 @@
+package com.startupocean.Startup.Collaboration.Portal.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * HTTP validators (ETag and Last-Modified) for a resource, computed from its
+ * {@code updatedAt} or, for collections, from max(updatedAt) and the row count.
+ * Used as a JPQL constructor expression so only the aggregate is read.
+ */
+@Getter
+public class ResourceVersion {
+
+    private final String etag;
+    private final long lastModified;
+
+    public ResourceVersion(LocalDateTime maxUpdatedAt, Long count) {
+        this.lastModified = toEpochMilli(maxUpdatedAt);
+        this.etag = "W/\"" + count + "-" + lastModified + "\"";
+    }
+
+    public static ResourceVersion of(LocalDateTime updatedAt) {
+        return new ResourceVersion(updatedAt, 1L);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime == null
+                ? -1
+                : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -2,6 +2,9 @@ package com.startupocean.Startup.Collaboration.Portal.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "cities")
@@ -20,4 +23,8 @@ public class City {
 
     @Column(name = "is_active")
     private Boolean isActive = true;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
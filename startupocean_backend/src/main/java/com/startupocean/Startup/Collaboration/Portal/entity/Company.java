@@ -18,7 +18,8 @@ import java.util.List;
 public class Company {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "companies_seq")
+    @SequenceGenerator(name = "companies_seq", sequenceName = "companies_seq", allocationSize = 50)
     @Column(name = "company_id")
     private Long companyId;
 
@@ -51,10 +52,6 @@ public class Company {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
-
-    @Column(name = "logo")
-    private byte[] logo;
-
     public void softDelete() {
         this.isActive = false;
         this.deletedAt = LocalDateTime.now();
@@ -0,0 +1,42 @@
+package com.startupocean.Startup.Collaboration.Portal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which logo a company currently uses. The image itself lives in the content-addressed
+ * {@code LogoStore} under {@link #hash}; this row is kept out of {@code companies} so
+ * that loading companies never touches logo data.
+ */
+@Entity
+@Table(name = "company_logos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyLogo {
+
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    /** Hex SHA-256 of the image, which is also its file name in the logo store. */
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "size")
+    private Long size;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
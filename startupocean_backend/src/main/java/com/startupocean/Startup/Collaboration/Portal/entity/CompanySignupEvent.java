@@ -0,0 +1,47 @@
+package com.startupocean.Startup.Collaboration.Portal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A company joined as the given type; a company offering both types has one row each.
+ * Digests list these to companies of the opposite type, and the rows are deleted once
+ * they are older than the longest digest period.
+ */
+@Entity
+@Table(name = "company_signup_events", indexes = {
+        @Index(name = "idx_company_signup_events_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanySignupEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "company_signup_events_seq")
+    @SequenceGenerator(name = "company_signup_events_seq", sequenceName = "company_signup_events_seq", allocationSize = 50)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "company_name", nullable = false)
+    private String companyName;
+
+    @Column(name = "city")
+    private String city;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "company_type", nullable = false, length = 20)
+    private Company.CompanyType companyType;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
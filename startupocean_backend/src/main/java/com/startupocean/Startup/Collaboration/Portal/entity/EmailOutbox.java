@@ -0,0 +1,87 @@
+package com.startupocean.Startup.Collaboration.Portal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting to be sent. Rows are written in the same transaction as the change
+ * that causes the email, so the mail goes out if and only if that change commits, and
+ * the {@code EmailOutboxDispatcher} delivers them in the background.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_lane_due", columnList = "status, lane, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    @Column(name = "email_id")
+    private Long emailId;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false, length = 500)
+    private String subject;
+
+    /** HTML body, rendered when the email was queued. */
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'BULK'")
+    @Column(name = "lane", nullable = false, length = 20)
+    private Lane lane = Lane.BULK;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    /** Failed delivery attempts so far. */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /** When the dispatcher may next pick this email up; pushed forward while it is being sent and after failures. */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public EmailOutbox(String recipient, String subject, String body, Lane lane) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.lane = lane;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    /**
+     * Which dispatcher sends the email. PRIORITY mail (OTPs) has its own workers, SMTP
+     * connections and share of the quotas, so it never waits behind BULK mail.
+     */
+    public enum Lane {
+        PRIORITY,
+        BULK
+    }
+
+    public enum OutboxStatus {
+        PENDING,
+        FAILED
+    }
+}
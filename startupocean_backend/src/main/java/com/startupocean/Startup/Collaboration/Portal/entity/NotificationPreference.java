@@ -0,0 +1,53 @@
+package com.startupocean.Startup.Collaboration.Portal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * How often a company wants the digest of newly joined companies, and up to when the
+ * last one it was sent covered. Kept out of {@code companies} so that advancing the
+ * digest watermark does not change the company's profile version.
+ */
+@Entity
+@Table(name = "notification_preferences", indexes = {
+        @Index(name = "idx_notification_preferences_due", columnList = "digest_frequency, last_digest_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPreference {
+
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "digest_frequency", nullable = false, length = 20)
+    private DigestFrequency digestFrequency;
+
+    /** Signups up to this time have been covered by a digest (or predate the company). */
+    @Column(name = "last_digest_at", nullable = false)
+    private LocalDateTime lastDigestAt;
+
+    public enum DigestFrequency {
+        DAILY(Duration.ofDays(1)),
+        WEEKLY(Duration.ofDays(7)),
+        NEVER(null);
+
+        private final Duration period;
+
+        DigestFrequency(Duration period) {
+            this.period = period;
+        }
+
+        /** Time between digests, or null if none are sent. */
+        public Duration getPeriod() {
+            return period;
+        }
+    }
+}
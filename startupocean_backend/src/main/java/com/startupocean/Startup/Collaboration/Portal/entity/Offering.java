@@ -9,14 +9,15 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "offerings")
+@Table(name = "offerings", indexes = @Index(name = "idx_offerings_service_id", columnList = "service_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Offering {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "offerings_seq")
+    @SequenceGenerator(name = "offerings_seq", sequenceName = "offerings_seq", allocationSize = 50)
     @Column(name = "offering_id")
     private Long offeringId;
 
@@ -2,6 +2,7 @@ package com.startupocean.Startup.Collaboration.Portal.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -9,14 +10,15 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "services")
+@Table(name = "services", indexes = @Index(name = "idx_services_company_id", columnList = "company_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ServiceEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "services_seq")
+    @SequenceGenerator(name = "services_seq", sequenceName = "services_seq", allocationSize = 50)
     @Column(name = "service_id")
     private Long serviceId;
 
@@ -37,6 +39,10 @@ public class ServiceEntity {
     @Column(name = "is_phone_visible")
     private Boolean isPhoneVisible = true;
 
+    @ColumnDefault("true")
+    @Column(name = "is_active")
+    private Boolean isActive = true;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -45,6 +51,19 @@ public class ServiceEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Offering> offerings;
+
+    public void softDelete() {
+        this.isActive = false;
+        this.deletedAt = LocalDateTime.now();
+    }
+
+    public void restore() {
+        this.isActive = true;
+        this.deletedAt = null;
+    }
 }
@@ -10,14 +10,15 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "social_links")
+@Table(name = "social_links", indexes = @Index(name = "idx_social_links_company_id", columnList = "company_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SocialLink {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "social_links_seq")
+    @SequenceGenerator(name = "social_links_seq", sequenceName = "social_links_seq", allocationSize = 50)
     @Column(name = "social_link_id")
     private Long socialLinkId;
 
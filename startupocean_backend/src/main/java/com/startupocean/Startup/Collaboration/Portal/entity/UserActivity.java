@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class UserActivity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_activities_seq")
+    @SequenceGenerator(name = "user_activities_seq", sequenceName = "user_activities_seq", allocationSize = 50)
     @Column(name = "activity_id")
     private Long activityId;
 
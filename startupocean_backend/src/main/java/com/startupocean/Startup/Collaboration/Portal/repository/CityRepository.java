@@ -1,7 +1,9 @@
 package com.startupocean.Startup.Collaboration.Portal.repository;
 
+import com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion;
 import com.startupocean.Startup.Collaboration.Portal.entity.City;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -10,4 +12,8 @@ public interface CityRepository extends JpaRepository<City, Long> {
     List<City> findByIsActiveTrue();
 
     boolean existsByCityNameIgnoreCase(String cityName);
+
+    @Query("SELECT new com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion(MAX(c.updatedAt), COUNT(c)) " +
+            "FROM City c WHERE c.isActive = true")
+    ResourceVersion findActiveVersion();
 }
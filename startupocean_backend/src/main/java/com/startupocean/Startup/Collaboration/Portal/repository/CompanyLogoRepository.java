@@ -0,0 +1,22 @@
+package com.startupocean.Startup.Collaboration.Portal.repository;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.CompanyLogo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CompanyLogoRepository extends JpaRepository<CompanyLogo, Long> {
+
+    /** Pairs of company id and logo hash, for building logo URLs without loading entities. */
+    @Query("SELECT l.companyId, l.hash FROM CompanyLogo l WHERE l.companyId IN :companyIds AND l.hash IS NOT NULL")
+    List<Object[]> findHashesByCompanyIdIn(@Param("companyIds") Collection<Long> companyIds);
+
+    /** Every logo hash some company uses. */
+    @Query("SELECT DISTINCT l.hash FROM CompanyLogo l WHERE l.hash IS NOT NULL")
+    List<String> findAllHashes();
+}
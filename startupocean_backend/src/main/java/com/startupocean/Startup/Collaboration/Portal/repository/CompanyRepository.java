@@ -1,11 +1,14 @@
 package com.startupocean.Startup.Collaboration.Portal.repository;
 
 import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,9 +18,16 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
 
     Optional<Company> findByEmailAndIsActiveTrue(String email);
 
+    /** Emails already taken, including by soft-deleted companies (the column is unique). */
+    @Query("SELECT c.email FROM Company c WHERE c.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT c.updatedAt FROM Company c WHERE c.companyId = :companyId AND c.isActive = true")
+    Optional<LocalDateTime> findActiveUpdatedAt(@Param("companyId") Long companyId);
+
     @Query("""
     SELECT DISTINCT c FROM Company c
-    LEFT JOIN c.services s
+    LEFT JOIN c.services s ON s.isActive = true
     WHERE c.isActive = true
     AND (
         LOWER(c.companyName) LIKE LOWER(CONCAT('%', :keyword, '%'))
@@ -39,12 +49,63 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
 
     Optional<Company> findByCompanyIdAndIsActiveTrue(Long companyId);
 
+    @Query("SELECT c.companyId, c.companyName, c.city FROM Company c WHERE c.isActive = true")
+    List<Object[]> findActiveNamesAndCities();
+
+    @Query("SELECT c.companyId, c.companyName, c.city FROM Company c WHERE c.companyId = :companyId AND c.isActive = true")
+    List<Object[]> findActiveNameAndCity(@Param("companyId") Long companyId);
+
+    @Query("SELECT c.companyId, c.companyName, c.city FROM Company c WHERE c.companyId IN :companyIds AND c.isActive = true")
+    List<Object[]> findActiveNamesAndCitiesIn(@Param("companyIds") Collection<Long> companyIds);
+
+    @Query("SELECT c.companyId, c.email FROM Company c WHERE c.companyId IN :companyIds AND c.isActive = true")
+    List<Object[]> findActiveEmailsIn(@Param("companyIds") Collection<Long> companyIds);
+
     @Query("""
-    SELECT DISTINCT c
-    FROM Company c
-    JOIN c.services s
-    WHERE s.type = :type
-    AND c.isActive = true
+    SELECT c FROM Company c
+    WHERE c.isActive = true
+    AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.companyId > :companyId))
+    ORDER BY c.createdAt ASC, c.companyId ASC
+    """)
+    List<Company> findActivePage(@Param("createdAt") LocalDateTime createdAt,
+                                 @Param("companyId") Long companyId,
+                                 Limit limit);
+
+    @Query("""
+    SELECT c FROM Company c
+    WHERE c.isActive = true
+    AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.companyId > :companyId))
+    AND (
+        LOWER(c.companyName) LIKE LOWER(CONCAT('%', :keyword, '%'))
+        OR EXISTS (
+            SELECT 1 FROM ServiceEntity s
+            WHERE s.company = c
+            AND s.isActive = true
+            AND LOWER(s.description) LIKE LOWER(CONCAT('%', :keyword, '%'))
+        )
+    )
+    ORDER BY c.createdAt ASC, c.companyId ASC
+    """)
+    List<Company> searchCompaniesPage(@Param("keyword") String keyword,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("companyId") Long companyId,
+                                      Limit limit);
+
+    @Query("""
+    SELECT c FROM Company c
+    WHERE c.isActive = true
+    AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.companyId > :companyId))
+    AND EXISTS (
+        SELECT 1 FROM Offering o
+        JOIN o.service s
+        WHERE s.company = c
+        AND o.isActive = true
+        AND LOWER(o.offeringName) LIKE LOWER(CONCAT('%', :offering, '%'))
+    )
+    ORDER BY c.createdAt ASC, c.companyId ASC
     """)
-    List<Company> findCompaniesByServiceType(@Param("type") Company.CompanyType type);
+    List<Company> searchByOfferingPage(@Param("offering") String offering,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("companyId") Long companyId,
+                                       Limit limit);
 }
@@ -0,0 +1,22 @@
+package com.startupocean.Startup.Collaboration.Portal.repository;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.CompanySignupEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CompanySignupEventRepository extends JpaRepository<CompanySignupEvent, Long> {
+
+    List<CompanySignupEvent> findByCreatedAtGreaterThanAndCreatedAtLessThanEqualOrderByCreatedAt(
+            LocalDateTime after, LocalDateTime until);
+
+    @Modifying
+    @Query("DELETE FROM CompanySignupEvent e WHERE e.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,41 @@
+package com.startupocean.Startup.Collaboration.Portal.repository;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Locks up to {@code limit} pending emails of one lane that are due. A lock timeout
+     * of -2 makes Hibernate add SKIP LOCKED on PostgreSQL, so concurrent dispatchers
+     * (other threads or other instances) each get different rows instead of waiting on
+     * one another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+    SELECT e FROM EmailOutbox e
+    WHERE e.status = :status AND e.lane = :lane AND e.nextAttemptAt <= :now
+    ORDER BY e.nextAttemptAt
+    """)
+    List<EmailOutbox> lockDue(@Param("status") EmailOutbox.OutboxStatus status, @Param("lane") EmailOutbox.Lane lane,
+                              @Param("now") LocalDateTime now, Limit limit);
+
+    long countByStatus(EmailOutbox.OutboxStatus status);
+
+    /** Rows per lane with {@code status}, as (lane, count) pairs. */
+    @Query("SELECT e.lane, COUNT(e) FROM EmailOutbox e WHERE e.status = :status GROUP BY e.lane")
+    List<Object[]> countByStatusPerLane(@Param("status") EmailOutbox.OutboxStatus status);
+}
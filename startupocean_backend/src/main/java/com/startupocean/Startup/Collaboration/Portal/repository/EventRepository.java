@@ -1,11 +1,15 @@
 package com.startupocean.Startup.Collaboration.Portal.repository;
 
+import com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion;
 import com.startupocean.Startup.Collaboration.Portal.entity.Event;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
@@ -18,4 +22,11 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e WHERE e.isActive = true AND e.eventDate < CURRENT_TIMESTAMP " +
             "ORDER BY e.eventDate DESC")
     List<Event> findPastEvents();
+
+    @Query("SELECT new com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion(MAX(e.updatedAt), COUNT(e)) " +
+            "FROM Event e WHERE e.isActive = true")
+    ResourceVersion findActiveVersion();
+
+    @Query("SELECT e.updatedAt FROM Event e WHERE e.eventId = :eventId")
+    Optional<LocalDateTime> findUpdatedAt(@Param("eventId") Long eventId);
 }
@@ -0,0 +1,54 @@
+package com.startupocean.Startup.Collaboration.Portal.repository;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.NotificationPreference;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, Long> {
+
+    /**
+     * The next keyset batch of companies on {@code frequency} whose last digest is at or
+     * before {@code dueBy}, locked with SKIP LOCKED (lock timeout -2) so two instances
+     * running the digest job never send the same company a digest twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+    SELECT p FROM NotificationPreference p
+    WHERE p.digestFrequency = :frequency
+    AND p.lastDigestAt <= :dueBy
+    AND p.companyId > :afterCompanyId
+    ORDER BY p.companyId
+    """)
+    List<NotificationPreference> lockDue(@Param("frequency") NotificationPreference.DigestFrequency frequency,
+                                         @Param("dueBy") LocalDateTime dueBy,
+                                         @Param("afterCompanyId") Long afterCompanyId,
+                                         Limit limit);
+
+    /**
+     * Gives every company without a preference row the default frequency, counting its
+     * own signup as the point its first digest starts from. ON CONFLICT covers another
+     * instance inserting the same rows at the same time.
+     */
+    @Modifying
+    @Query(value = """
+    INSERT INTO notification_preferences (company_id, digest_frequency, last_digest_at)
+    SELECT c.company_id, :frequency, COALESCE(c.created_at, CURRENT_TIMESTAMP)
+    FROM companies c
+    WHERE NOT EXISTS (SELECT 1 FROM notification_preferences p WHERE p.company_id = c.company_id)
+    ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertMissing(@Param("frequency") String frequency);
+}
@@ -3,8 +3,11 @@ package com.startupocean.Startup.Collaboration.Portal.repository;
 import com.startupocean.Startup.Collaboration.Portal.entity.Offering;
 import com.startupocean.Startup.Collaboration.Portal.entity.ServiceEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +15,35 @@ public interface OfferingRepository extends JpaRepository<Offering, Long> {
 
     List<Offering> findByServiceAndIsActiveTrue(ServiceEntity service);
 
+    List<Offering> findByServiceInAndIsActiveTrueOrderByOfferingIdAsc(Collection<ServiceEntity> services);
+
+    @Query("""
+    SELECT s.company.companyId, o.offeringName
+    FROM Offering o
+    JOIN o.service s
+    WHERE o.isActive = true
+    AND s.company.isActive = true
+    """)
+    List<Object[]> findActiveOfferingNamesByCompany();
+
+    @Query("""
+    SELECT s.company.companyId, o.offeringName
+    FROM Offering o
+    JOIN o.service s
+    WHERE o.isActive = true
+    AND s.company.companyId IN :companyIds
+    AND s.company.isActive = true
+    """)
+    List<Object[]> findActiveOfferingNamesByCompanyIn(@Param("companyIds") Collection<Long> companyIds);
+
+    @Query("""
+    SELECT o.offeringName
+    FROM Offering o
+    JOIN o.service s
+    WHERE o.isActive = true
+    AND s.company.companyId = :companyId
+    AND s.company.isActive = true
+    """)
+    List<String> findActiveOfferingNames(@Param("companyId") Long companyId);
+
 }
\ No newline at end of file
@@ -3,12 +3,22 @@ package com.startupocean.Startup.Collaboration.Portal.repository;
 import com.startupocean.Startup.Collaboration.Portal.entity.Company;
 import com.startupocean.Startup.Collaboration.Portal.entity.ServiceEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ServiceRepository extends JpaRepository<ServiceEntity, Long> {
     List<ServiceEntity> findByCompany(Company company);
 
+    List<ServiceEntity> findByCompanyAndIsActiveTrueOrderByServiceIdAsc(Company company);
+
+    List<ServiceEntity> findByCompanyInAndIsActiveTrueOrderByServiceIdAsc(Collection<Company> companies);
+
+    /** Pairs of company id and the types of its active services. */
+    @Query("SELECT DISTINCT s.company.companyId, s.type FROM ServiceEntity s WHERE s.company.companyId IN :companyIds AND s.isActive = true")
+    List<Object[]> findActiveTypesByCompanyIdIn(@Param("companyIds") Collection<Long> companyIds);
 }
@@ -5,9 +5,13 @@ import com.startupocean.Startup.Collaboration.Portal.entity.SocialLink;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SocialLinkRepository extends JpaRepository<SocialLink, Long> {
     Optional<SocialLink> findByCompanyAndIsActiveTrue(Company company);
+
+    List<SocialLink> findByCompanyInAndIsActiveTrue(Collection<Company> companies);
 }
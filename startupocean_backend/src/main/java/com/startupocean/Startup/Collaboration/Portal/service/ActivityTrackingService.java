@@ -1,25 +1,37 @@
 package com.startupocean.Startup.Collaboration.Portal.service;
 
+import com.startupocean.Startup.Collaboration.Portal.config.ExecutorConfig;
+import com.startupocean.Startup.Collaboration.Portal.config.WorkloadExecutor;
 import com.startupocean.Startup.Collaboration.Portal.dto.ActivityTrackingRequest;
 import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
 import com.startupocean.Startup.Collaboration.Portal.entity.UserActivity;
 import com.startupocean.Startup.Collaboration.Portal.repository.UserActivityRepository;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class ActivityTrackingService {
 
     private final UserActivityRepository userActivityRepository;
+    private final WorkloadExecutor activityExecutor;
 
-    @Async
-    @Transactional
+    public ActivityTrackingService(UserActivityRepository userActivityRepository,
+                                   @Qualifier(ExecutorConfig.ACTIVITY) WorkloadExecutor activityExecutor) {
+        this.userActivityRepository = userActivityRepository;
+        this.activityExecutor = activityExecutor;
+    }
+
+    /**
+     * Reads the activity from the request on the caller's thread, while the request and
+     * its security context are still there, and saves it on the activity executor. When
+     * that is saturated the activity is dropped rather than slowing the request down.
+     */
     public ApiResponse trackActivity(ActivityTrackingRequest request, HttpServletRequest httpRequest) {
         UserActivity activity = new UserActivity();
 
@@ -44,8 +56,13 @@ public class ActivityTrackingService {
         parseUserAgent(userAgent, activity);
         activity.setReferrerUrl(httpRequest.getHeader("Referer"));
         activity.setMetadata(request.getMetadata());
-        userActivityRepository.save(activity);
 
+        try {
+            activityExecutor.execute(() -> userActivityRepository.save(activity));
+        } catch (TaskRejectedException e) {
+            log.debug("Activity executor saturated, dropping {} activity", request.getActivityType());
+            return new ApiResponse(false, "Activity not tracked, try again later", null);
+        }
         return new ApiResponse(true, "Activity tracked successfully", null);
     }
 
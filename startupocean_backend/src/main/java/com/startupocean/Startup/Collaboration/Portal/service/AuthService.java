@@ -7,11 +7,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,10 +20,14 @@ public class AuthService {
     private final JwtService jwtService;
     private final CompanyRepository companyRepository;
     private final EmailService emailService;
+    private final OtpStore otpStore;
 
     private static final Logger log =
             LoggerFactory.getLogger(AuthService.class);
 
+    private static final String TOO_MANY_PENDING_MESSAGE = "Too many pending OTPs, please try again later";
+    private static final String TOO_MANY_ATTEMPTS_MESSAGE = "Too many wrong attempts, please request a new OTP";
+
     @Transactional
     public ApiResponse sendOtp(String email, String template) {
 
@@ -37,14 +39,13 @@ public class AuthService {
                     null);
         }
 
-        String otp = generateOTP();
-        String k = key(email);
-
-        otpStore.put(k, otp);
-        otpExpiryStore.put(k, LocalDateTime.now().plusMinutes(10));
+        int otp = generateOTP();
+        if (!otpStore.put(key(email), otp)) {
+            return new ApiResponse(false, TOO_MANY_PENDING_MESSAGE, null);
+        }
 
         // send email with frontend template OR backend default
-        emailService.sendOtpEmail(email, otp, template);
+        emailService.sendOtpEmail(email, String.valueOf(otp), template);
 
         return new ApiResponse(true, "OTP sent successfully", null);
     }
@@ -52,19 +53,16 @@ public class AuthService {
     @Transactional
     public ApiResponse verifyOtp(OtpRequest request) {
 
-        String otpKey = key(request.getEmail());
-
-        String storedOtp = otpStore.get(otpKey);
-        LocalDateTime expiry = otpExpiryStore.get(otpKey);
-
-        if(storedOtp == null || !storedOtp.equals(request.getOtp()))
-            return new ApiResponse(false,"Invalid OTP",null);
-
-        if(expiry.isBefore(LocalDateTime.now()))
-            return new ApiResponse(false,"OTP expired",null);
-
-        otpStore.remove(otpKey);
-        otpExpiryStore.remove(otpKey);
+        switch (otpStore.verify(key(request.getEmail()), request.getOtp())) {
+            case VERIFIED:
+                break;
+            case EXPIRED:
+                return new ApiResponse(false,"OTP expired",null);
+            case TOO_MANY_ATTEMPTS:
+                return new ApiResponse(false,TOO_MANY_ATTEMPTS_MESSAGE,null);
+            default:
+                return new ApiResponse(false,"Invalid OTP",null);
+        }
 
         Map<String,Object> claims = new HashMap<>();
 
@@ -91,14 +89,12 @@ public class AuthService {
     @Transactional
     public ApiResponse register(RegisterRequest request) {
 
-        String otp = generateOTP();
-
-        String k = key(request.getEmail());
-
-        otpStore.put(k, otp);
-        otpExpiryStore.put(k, LocalDateTime.now().plusMinutes(10));
+        int otp = generateOTP();
+        if (!otpStore.put(key(request.getEmail()), otp)) {
+            return new ApiResponse(false, TOO_MANY_PENDING_MESSAGE, null);
+        }
 
-        emailService.sendOtpEmail(request.getEmail(), otp, null);
+        emailService.sendOtpEmail(request.getEmail(), String.valueOf(otp), null);
 
         return new ApiResponse(true,"OTP sent",null);
     }
@@ -110,15 +106,14 @@ public class AuthService {
                 .orElseThrow(() ->
                         new RuntimeException("Company not found with this email"));
 
-        String otp = generateOTP();
-
-        String k = key(request.getEmail());
-        otpStore.put(k, otp);
-        otpExpiryStore.put(k, LocalDateTime.now().plusMinutes(10));
+        int otp = generateOTP();
+        if (!otpStore.put(key(request.getEmail()), otp)) {
+            return new ApiResponse(false, TOO_MANY_PENDING_MESSAGE, null);
+        }
 
         emailService.sendOtpEmail(
                 company.getEmail(),
-                otp,
+                String.valueOf(otp),
                 request.getTemplate() // add template
         );
 
@@ -133,25 +128,19 @@ public class AuthService {
                             new RuntimeException("Company not found"));
 
 
-            String otpKey = key(request.getEmail());
-        String storedOtp = otpStore.get(otpKey);
-        LocalDateTime expiry = otpExpiryStore.get(otpKey);
-
-        if (storedOtp == null) {
-            throw new RuntimeException("OTP not requested");
+        switch (otpStore.verify(key(request.getEmail()), request.getOtp())) {
+            case VERIFIED:
+                break;
+            case NOT_REQUESTED:
+                throw new RuntimeException("OTP not requested");
+            case EXPIRED:
+                throw new RuntimeException("OTP expired");
+            case TOO_MANY_ATTEMPTS:
+                throw new RuntimeException(TOO_MANY_ATTEMPTS_MESSAGE);
+            default:
+                throw new RuntimeException("Invalid OTP");
         }
 
-        if (!storedOtp.equals(request.getOtp())) {
-            throw new RuntimeException("Invalid OTP");
-        }
-
-        if (expiry == null || expiry.isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("OTP expired");
-        }
-
-        otpStore.remove(otpKey);
-        otpExpiryStore.remove(otpKey);
-
         String jwtToken = jwtService.generateToken(
                 new org.springframework.security.core.userdetails.User(
                         company.getEmail(),
@@ -170,13 +159,10 @@ public class AuthService {
         );
     }
 
-    private String generateOTP() {
+    private int generateOTP() {
         Random random = new Random();
-        int otp = 100000 + random.nextInt(900000);
-        return String.valueOf(otp);
+        return 100000 + random.nextInt(900000);
     }
-    private static final Map<String, String> otpStore = new ConcurrentHashMap<>();
-    private static final Map<String, LocalDateTime> otpExpiryStore = new ConcurrentHashMap<>();
     private String key(String email){
         return email;
     }
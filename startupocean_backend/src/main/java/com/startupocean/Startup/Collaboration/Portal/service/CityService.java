@@ -1,6 +1,7 @@
 package com.startupocean.Startup.Collaboration.Portal.service;
 
 import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion;
 import com.startupocean.Startup.Collaboration.Portal.entity.City;
 import com.startupocean.Startup.Collaboration.Portal.repository.CityRepository;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +31,10 @@ public class CityService {
         return new ApiResponse(true, "City added successfully", city);
     }
 
+    public ResourceVersion getCitiesVersion() {
+        return cityRepository.findActiveVersion();
+    }
+
     public ApiResponse getAllCities() {
         List<City> cities = cityRepository.findByIsActiveTrue();
         return new ApiResponse(true, "Cities retrieved successfully", cities);
@@ -0,0 +1,18 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@link CompanyImportService} once per committed chunk of new companies,
+ * so indexes can load the whole chunk with a few queries instead of reacting to one
+ * {@link CompanyChangedEvent} per company.
+ */
+@Getter
+@AllArgsConstructor
+public class CompaniesImportedEvent {
+
+    private final List<Long> companyIds;
+}
@@ -0,0 +1,37 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link CompanyService} whenever a company or its services, offerings
+ * or social links are written. In-memory indexes and caches listen for it after commit.
+ *
+ * Updates carry the {@link CompanyChanges} they made; creates and deletes carry none,
+ * which means anything about the company may have changed.
+ */
+@Getter
+@AllArgsConstructor
+public class CompanyChangedEvent {
+
+    private final Long companyId;
+    private final CompanyChanges changes;
+
+    public CompanyChangedEvent(Long companyId) {
+        this(companyId, null);
+    }
+
+    /** Name, city, service descriptions or offerings: everything search documents are built from. */
+    public boolean searchTextChanged() {
+        return changes == null || changes.isProfileChanged() || changes.servicesChanged() || changes.offeringsChanged();
+    }
+
+    /** Name, city or offerings: everything the suggest and fuzzy indexes hold. */
+    public boolean namesChanged() {
+        return changes == null || changes.isProfileChanged() || changes.offeringsChanged();
+    }
+
+    public boolean offeringsChanged() {
+        return changes == null || changes.offeringsChanged();
+    }
+}
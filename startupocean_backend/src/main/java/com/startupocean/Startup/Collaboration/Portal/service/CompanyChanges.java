@@ -0,0 +1,66 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * What a company update actually changed, as counted by {@link CompanyGraphReconciler}.
+ * Carried on {@link CompanyChangedEvent} so listeners only rebuild what is affected.
+ */
+@Getter
+@ToString
+public class CompanyChanges {
+
+    private boolean profileChanged;
+    private boolean socialLinksChanged;
+    private boolean logoChanged;
+    private int servicesInserted;
+    private int servicesUpdated;
+    private int servicesDeleted;
+    private int offeringsInserted;
+    private int offeringsDeleted;
+
+    public boolean isEmpty() {
+        return !profileChanged && !socialLinksChanged && !logoChanged && !servicesChanged() && !offeringsChanged();
+    }
+
+    public boolean servicesChanged() {
+        return servicesInserted + servicesUpdated + servicesDeleted > 0;
+    }
+
+    public boolean offeringsChanged() {
+        return offeringsInserted + offeringsDeleted > 0;
+    }
+
+    void profileChanged() {
+        profileChanged = true;
+    }
+
+    void socialLinksChanged() {
+        socialLinksChanged = true;
+    }
+
+    void logoChanged() {
+        logoChanged = true;
+    }
+
+    void serviceInserted() {
+        servicesInserted++;
+    }
+
+    void serviceUpdated() {
+        servicesUpdated++;
+    }
+
+    void serviceDeleted() {
+        servicesDeleted++;
+    }
+
+    void offeringInserted() {
+        offeringsInserted++;
+    }
+
+    void offeringDeleted() {
+        offeringsDeleted++;
+    }
+}
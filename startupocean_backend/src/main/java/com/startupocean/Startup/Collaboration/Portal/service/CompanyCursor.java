@@ -0,0 +1,54 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the company directory, ordered by (createdAt, companyId).
+ * Clients only ever see the opaque base64url token produced by {@link #encode()}.
+ */
+@Getter
+@AllArgsConstructor
+public class CompanyCursor {
+
+    public static final CompanyCursor START =
+            new CompanyCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final LocalDateTime createdAt;
+    private final Long companyId;
+
+    public static CompanyCursor after(Company company) {
+        return new CompanyCursor(company.getCreatedAt(), company.getCompanyId());
+    }
+
+    public static CompanyCursor decode(String token) {
+
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+
+            return new CompanyCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + companyId;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,274 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.entity.CompanySignupEvent;
+import com.startupocean.Startup.Collaboration.Portal.entity.NotificationPreference;
+import com.startupocean.Startup.Collaboration.Portal.entity.NotificationPreference.DigestFrequency;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanySignupEventRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.NotificationPreferenceRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.ServiceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells companies about newly joined companies of the opposite type in one periodic
+ * digest each, instead of one email per signup to every such company.
+ *
+ * A signup only records {@link CompanySignupEvent}s. The scheduled run loads the events
+ * of the longest digest period once, split by type, then walks the companies whose
+ * digest is due in keyset batches. In each batch's transaction it queues one email per
+ * company with something new and advances that company's {@code last_digest_at}, so
+ * the work per run grows with the number of companies due, not with signups times
+ * companies.
+ *
+ * Runs only look at signups at least {@code digest.settle-time} old, so a signup whose
+ * transaction is still open when the run starts is picked up by the next run.
+ */
+@Service
+@Slf4j
+public class CompanyDigestService {
+
+    private final CompanySignupEventRepository signupEventRepository;
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final CompanyRepository companyRepository;
+    private final ServiceRepository serviceRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final DigestFrequency defaultFrequency;
+    private final int batchSize;
+    private final Duration settleTime;
+
+    public CompanyDigestService(CompanySignupEventRepository signupEventRepository,
+                                NotificationPreferenceRepository preferenceRepository,
+                                CompanyRepository companyRepository,
+                                ServiceRepository serviceRepository,
+                                EmailService emailService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${digest.enabled:true}") boolean enabled,
+                                @Value("${digest.default-frequency:DAILY}") DigestFrequency defaultFrequency,
+                                @Value("${digest.batch-size:500}") int batchSize,
+                                @Value("${digest.settle-time:PT1M}") Duration settleTime) {
+        this.signupEventRepository = signupEventRepository;
+        this.preferenceRepository = preferenceRepository;
+        this.companyRepository = companyRepository;
+        this.serviceRepository = serviceRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.defaultFrequency = defaultFrequency;
+        this.batchSize = batchSize;
+        this.settleTime = settleTime;
+    }
+
+    /** Records that a company joined as each of the given types. Joins the caller's transaction. */
+    public void recordSignup(Company company, Collection<Company.CompanyType> types) {
+
+        List<CompanySignupEvent> events = new ArrayList<>(types.size());
+        for (Company.CompanyType type : types) {
+            CompanySignupEvent event = new CompanySignupEvent();
+            event.setCompanyId(company.getCompanyId());
+            event.setCompanyName(company.getCompanyName());
+            event.setCity(company.getCity());
+            event.setCompanyType(type);
+            events.add(event);
+        }
+        signupEventRepository.saveAll(events);
+    }
+
+    public DigestFrequency getFrequency(Long companyId) {
+        return preferenceRepository.findById(companyId)
+                .map(NotificationPreference::getDigestFrequency)
+                .orElse(defaultFrequency);
+    }
+
+    public void setFrequency(Long companyId, DigestFrequency frequency) {
+        transactionTemplate.executeWithoutResult(status -> {
+            NotificationPreference preference = preferenceRepository.findById(companyId)
+                    .orElseGet(() -> new NotificationPreference(companyId, frequency, LocalDateTime.now()));
+            preference.setDigestFrequency(frequency);
+            preferenceRepository.save(preference);
+        });
+    }
+
+    @Scheduled(cron = "${digest.cron:0 0 * * * *}")
+    public void sendDueDigests() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sendDigests(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Company digest run failed", e);
+        }
+    }
+
+    /** Queues the digests due at {@code now} and returns how many were queued. */
+    int sendDigests(LocalDateTime now) {
+
+        // whole minutes keep every run's cutoff exactly one schedule interval apart
+        LocalDateTime cutoff = now.truncatedTo(ChronoUnit.MINUTES).minus(settleTime);
+        Duration longest = longestPeriod();
+
+        transactionTemplate.executeWithoutResult(status ->
+                preferenceRepository.insertMissing(defaultFrequency.name()));
+
+        SignupsByType events = new SignupsByType(signupEventRepository
+                .findByCreatedAtGreaterThanAndCreatedAtLessThanEqualOrderByCreatedAt(cutoff.minus(longest), cutoff));
+
+        int queued = 0;
+        for (DigestFrequency frequency : DigestFrequency.values()) {
+            if (frequency.getPeriod() == null) {
+                continue;
+            }
+            LocalDateTime dueBy = cutoff.minus(frequency.getPeriod());
+            long afterCompanyId = 0;
+            while (true) {
+                long after = afterCompanyId;
+                Batch batch = transactionTemplate.execute(status -> sendBatch(frequency, dueBy, after, cutoff, events));
+                queued += batch.queued();
+                if (batch.claimed() < batchSize) {
+                    break;
+                }
+                afterCompanyId = batch.lastCompanyId();
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                signupEventRepository.deleteOlderThan(cutoff.minus(longest).minusDays(1)));
+
+        log.info("Company digest run up to {}: {} digests queued from {} signups", cutoff, queued, events.size());
+        return queued;
+    }
+
+    private Batch sendBatch(DigestFrequency frequency, LocalDateTime dueBy, long afterCompanyId,
+                            LocalDateTime cutoff, SignupsByType events) {
+
+        List<NotificationPreference> due = preferenceRepository.lockDue(frequency, dueBy, afterCompanyId, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return new Batch(0, afterCompanyId, 0);
+        }
+
+        List<Long> companyIds = due.stream().map(NotificationPreference::getCompanyId).toList();
+        Map<Long, String> emails = new HashMap<>();
+        for (Object[] row : companyRepository.findActiveEmailsIn(companyIds)) {
+            emails.put((Long) row[0], (String) row[1]);
+        }
+        Map<Long, Set<Company.CompanyType>> types = new HashMap<>();
+        for (Object[] row : serviceRepository.findActiveTypesByCompanyIdIn(companyIds)) {
+            types.computeIfAbsent((Long) row[0], id -> EnumSet.noneOf(Company.CompanyType.class))
+                    .add((Company.CompanyType) row[1]);
+        }
+
+        LocalDateTime oldest = cutoff.minus(longestPeriod());
+        int queued = 0;
+        for (NotificationPreference preference : due) {
+
+            Long companyId = preference.getCompanyId();
+            String email = emails.get(companyId);
+
+            if (email != null) {
+                LocalDateTime since = preference.getLastDigestAt().isAfter(oldest) ? preference.getLastDigestAt() : oldest;
+                List<CompanySignupEvent> news = new ArrayList<>();
+                for (Company.CompanyType interest : opposites(types.get(companyId))) {
+                    news.addAll(events.since(interest, since, companyId));
+                }
+                if (!news.isEmpty()) {
+                    emailService.sendCompanyDigest(email, news);
+                    queued++;
+                }
+            }
+            preference.setLastDigestAt(cutoff);
+        }
+
+        return new Batch(due.size(), due.get(due.size() - 1).getCompanyId(), queued);
+    }
+
+    /** Startups hear about service providers and the other way round. */
+    private static Set<Company.CompanyType> opposites(Set<Company.CompanyType> types) {
+        Set<Company.CompanyType> opposites = EnumSet.noneOf(Company.CompanyType.class);
+        if (types == null) {
+            return opposites;
+        }
+        if (types.contains(Company.CompanyType.STARTUP)) {
+            opposites.add(Company.CompanyType.SERVICE_PROVIDER);
+        }
+        if (types.contains(Company.CompanyType.SERVICE_PROVIDER)) {
+            opposites.add(Company.CompanyType.STARTUP);
+        }
+        return opposites;
+    }
+
+    private static Duration longestPeriod() {
+        Duration longest = Duration.ZERO;
+        for (DigestFrequency frequency : DigestFrequency.values()) {
+            if (frequency.getPeriod() != null && frequency.getPeriod().compareTo(longest) > 0) {
+                longest = frequency.getPeriod();
+            }
+        }
+        return longest;
+    }
+
+    private record Batch(int claimed, long lastCompanyId, int queued) {
+    }
+
+    /** A run's signups split by type, each list in creation order. */
+    private static final class SignupsByType {
+
+        private final Map<Company.CompanyType, List<CompanySignupEvent>> byType = new EnumMap<>(Company.CompanyType.class);
+        private final int size;
+
+        SignupsByType(List<CompanySignupEvent> events) {
+            for (CompanySignupEvent event : events) {
+                byType.computeIfAbsent(event.getCompanyType(), type -> new ArrayList<>()).add(event);
+            }
+            this.size = events.size();
+        }
+
+        int size() {
+            return size;
+        }
+
+        /** Signups of {@code type} after {@code since}, other than {@code companyId}'s own; found by binary search. */
+        List<CompanySignupEvent> since(Company.CompanyType type, LocalDateTime since, Long companyId) {
+
+            List<CompanySignupEvent> events = byType.getOrDefault(type, List.of());
+            int low = 0;
+            int high = events.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (events.get(mid).getCreatedAt().isAfter(since)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+
+            List<CompanySignupEvent> news = new ArrayList<>(events.size() - low);
+            for (CompanySignupEvent event : events.subList(low, events.size())) {
+                if (!event.getCompanyId().equals(companyId)) {
+                    news.add(event);
+                }
+            }
+            return news;
+        }
+    }
+}
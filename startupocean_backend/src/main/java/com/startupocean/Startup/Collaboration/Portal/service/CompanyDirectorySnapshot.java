@@ -0,0 +1,256 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.ExecutorConfig;
+import com.startupocean.Startup.Collaboration.Portal.config.WorkloadExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized copy of the public {@code GET /companies} response.
+ *
+ * The directory is serialized once into identity and gzip JSON, written to a file and
+ * memory-mapped, so requests are answered by copying mapped bytes to the socket and a
+ * restart serves the last snapshot from disk straight away. After every company write
+ * a new snapshot is built on the maintenance executor, written next to the old one, renamed
+ * over it and published through a volatile field; readers keep whichever version they
+ * already picked up. If the file cannot be written, that version is served from the heap
+ * until a later rebuild gets it onto disk.
+ *
+ * File layout: magic, version, ETag, identity length, gzip length, identity bytes, gzip bytes.
+ */
+@Component
+@Slf4j
+public class CompanyDirectorySnapshot {
+
+    private static final int MAGIC = 0x534E4150;
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_NAME = "company-directory.snap";
+    private static final Duration REBUILD_DELAY = Duration.ofSeconds(1);
+
+    private final CompanyService companyService;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+    private final WorkloadExecutor maintenanceExecutor;
+    private final Path file;
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Snapshot current;
+
+    public CompanyDirectorySnapshot(CompanyService companyService,
+                                    ObjectMapper objectMapper,
+                                    TaskScheduler taskScheduler,
+                                    @Qualifier(ExecutorConfig.MAINTENANCE) WorkloadExecutor maintenanceExecutor,
+                                    @Value("${directory.snapshot.dir:snapshots}") String directory) {
+        this.companyService = companyService;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.maintenanceExecutor = maintenanceExecutor;
+        this.file = Paths.get(directory).resolve(FILE_NAME);
+    }
+
+    /** Maps the snapshot left by the previous run, then refreshes it in the background. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        loadFromDisk();
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompanyChanged(CompanyChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompaniesImported(CompaniesImportedEvent event) {
+        scheduleRebuild();
+    }
+
+    /** Returns the current snapshot, building the first one on the caller's thread if needed. */
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) {
+                    rebuild();
+                }
+                snapshot = current;
+            }
+        }
+        return snapshot;
+    }
+
+    void loadFromDisk() {
+
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            current = map(file);
+            log.info("Company directory snapshot warm-started from {} (ETag {})", file, current.etag);
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Ignoring unreadable company directory snapshot {}", file, e);
+        }
+    }
+
+    synchronized void rebuild() {
+
+        rebuildScheduled.set(false);
+        long start = System.nanoTime();
+
+        byte[] identity = objectMapper.writeValueAsBytes(companyService.getAllCompanies());
+        byte[] gzip = gzip(identity);
+        String etag = "\"" + sha256(identity) + "\"";
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+            write(temp, etag, identity, gzip);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            current = map(file);
+
+        } catch (IOException e) {
+            // still serve this version, from the heap; the next rebuild tries the disk again
+            log.error("Failed to write company directory snapshot to {}, keeping it in memory", file, e);
+            current = new Snapshot(etag, ByteBuffer.wrap(identity).asReadOnlyBuffer(),
+                    ByteBuffer.wrap(gzip).asReadOnlyBuffer());
+        }
+        log.info("Company directory snapshot rebuilt: {} bytes, {} gzipped, ETag {} in {} ms",
+                identity.length, gzip.length, etag, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> maintenanceExecutor.execute(this::rebuild), Instant.now().plus(REBUILD_DELAY));
+        }
+    }
+
+    private static void write(Path target, String etag, byte[] identity, byte[] gzip) throws IOException {
+
+        byte[] etagBytes = etag.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer header = ByteBuffer.allocate(5 * Integer.BYTES + etagBytes.length);
+        header.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(etagBytes.length)
+                .put(etagBytes)
+                .putInt(identity.length)
+                .putInt(gzip.length)
+                .flip();
+
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] parts = {header, ByteBuffer.wrap(identity), ByteBuffer.wrap(gzip)};
+            long remaining = header.remaining() + identity.length + gzip.length;
+            while (remaining > 0) {
+                remaining -= channel.write(parts);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static Snapshot map(Path source) throws IOException {
+
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (mapped.remaining() < 3 * Integer.BYTES
+                || mapped.getInt() != MAGIC
+                || mapped.getInt() != FORMAT_VERSION) {
+            throw new IllegalStateException("Not a company directory snapshot");
+        }
+
+        byte[] etagBytes = new byte[mapped.getInt()];
+        mapped.get(etagBytes);
+        int identityLength = mapped.getInt();
+        int gzipLength = mapped.getInt();
+        if (mapped.remaining() != identityLength + gzipLength) {
+            throw new IllegalStateException("Truncated company directory snapshot");
+        }
+
+        ByteBuffer identity = mapped.slice(mapped.position(), identityLength);
+        ByteBuffer gzip = mapped.slice(mapped.position() + identityLength, gzipLength);
+        return new Snapshot(new String(etagBytes, StandardCharsets.US_ASCII), identity, gzip);
+    }
+
+    private static byte[] gzip(byte[] identity) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(identity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One immutable version of the directory. Buffers are read-only views of the mapped
+     * file; callers must {@link ByteBuffer#duplicate()} them before reading.
+     */
+    public static final class Snapshot {
+
+        private final String etag;
+        private final ByteBuffer identity;
+        private final ByteBuffer gzip;
+
+        private Snapshot(String etag, ByteBuffer identity, ByteBuffer gzip) {
+            this.etag = etag;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        /** Strong validator of the identity representation. */
+        public String getEtag() {
+            return etag;
+        }
+
+        /** Strong validator of the gzip representation, which differs from the identity one. */
+        public String getGzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        public ByteBuffer getIdentity() {
+            return identity.duplicate();
+        }
+
+        public ByteBuffer getGzip() {
+            return gzip.duplicate();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.ServiceResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.SocialLinkResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Writes the whole active directory to an output stream as NDJSON or CSV.
+ *
+ * Companies, services, offerings and social links come from one query ordered by
+ * company, service and offering, read through a forward-only cursor with a bounded
+ * fetch size. Consecutive rows are folded into one company at a time and written out
+ * immediately, so memory use is bounded by the largest single company rather than by
+ * the size of the directory.
+ *
+ * The cursor keeps a pooled connection for the whole download, however slow the client,
+ * so at most {@code company.export.max-concurrent} exports run at once; callers take a
+ * slot with {@link #tryAcquire()} and give it back with {@link #release()}.
+ *
+ * NDJSON lines have the {@link CompanyResponse} shape. CSV rows use the same columns as
+ * {@link CompanyImportService}, one row per service, so an export can be re-imported.
+ */
+@Service
+@Slf4j
+public class CompanyExportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    static final String EXPORT_SQL = """
+            SELECT c.company_id, c.company_name, c.email, c.city, c.created_at,
+                   s.service_id, s.type, s.description, s.phone_number, s.is_phone_visible,
+                   o.offering_name, lg.hash AS logo_hash,
+                   l.website, l.linkedin, l.facebook, l.instagram, l.twitter
+            FROM companies c
+            LEFT JOIN services s ON s.company_id = c.company_id AND s.is_active = true
+            LEFT JOIN offerings o ON o.service_id = s.service_id AND o.is_active = true
+            LEFT JOIN company_logos lg ON lg.company_id = c.company_id
+            LEFT JOIN social_links l ON l.social_link_id = (
+                SELECT MIN(sl.social_link_id) FROM social_links sl
+                WHERE sl.company_id = c.company_id AND sl.is_active = true
+            )
+            WHERE c.is_active = true
+            ORDER BY c.company_id, s.service_id, o.offering_id
+            """;
+
+    static final List<String> CSV_COLUMNS = List.of(
+            "email", "companyName", "city", "serviceType", "serviceDescription", "phoneNumber",
+            "isPhoneVisible", "offerings", "website", "linkedin", "facebook", "instagram", "twitter");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Semaphore slots;
+
+    public CompanyExportService(JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${company.export.fetch-size:500}") int fetchSize,
+                                @Value("${company.export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /** Takes an export slot if one is free, without waiting. */
+    public boolean tryAcquire() {
+        return slots.tryAcquire();
+    }
+
+    /** Gives back a slot taken with {@link #tryAcquire()}. */
+    public void release() {
+        slots.release();
+    }
+
+    /**
+     * Streams every active company to {@code out}. Runs in a read-only transaction so
+     * the PostgreSQL driver uses a server-side cursor instead of buffering the result.
+     */
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CompanySink sink = format == Format.CSV ? new CsvSink(writer) : new NdjsonSink(writer);
+        CompanyFolder folder = new CompanyFolder(sink);
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, folder::add);
+            folder.finish();
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} companies as {} in {} ms",
+                folder.companies, format, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Folds consecutive rows of the ordered result into one company at a time. */
+    private static final class CompanyFolder {
+
+        private final CompanySink sink;
+
+        private CompanyResponse company;
+        private ServiceResponse service;
+        private Long serviceId;
+        private long companies;
+
+        private CompanyFolder(CompanySink sink) {
+            this.sink = sink;
+        }
+
+        private void add(ResultSet rs) throws SQLException {
+
+            long companyId = rs.getLong("company_id");
+            if (company == null || company.getCompanyId() != companyId) {
+                finish();
+                company = newCompany(rs, companyId);
+                service = null;
+                serviceId = null;
+            }
+
+            Long rowServiceId = rs.getObject("service_id", Long.class);
+            if (rowServiceId == null) {
+                return;
+            }
+            if (!rowServiceId.equals(serviceId)) {
+                serviceId = rowServiceId;
+                service = new ServiceResponse();
+                service.setType(rs.getString("type"));
+                service.setDescription(rs.getString("description"));
+                service.setPhoneNumber(rs.getString("phone_number"));
+                service.setIsPhoneVisible(rs.getObject("is_phone_visible", Boolean.class));
+                service.setOfferings(new ArrayList<>());
+                company.getServices().add(service);
+            }
+
+            String offeringName = rs.getString("offering_name");
+            if (offeringName != null) {
+                service.getOfferings().add(offeringName);
+            }
+        }
+
+        private void finish() {
+            if (company != null) {
+                sink.write(company);
+                companies++;
+                company = null;
+            }
+        }
+
+        private static CompanyResponse newCompany(ResultSet rs, long companyId) throws SQLException {
+
+            CompanyResponse response = new CompanyResponse();
+            response.setCompanyId(companyId);
+            response.setCompanyName(rs.getString("company_name"));
+            response.setEmail(rs.getString("email"));
+            response.setCity(rs.getString("city"));
+            response.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+            response.setLogoUrl(CompanyResponseAssembler.logoUrl(rs.getString("logo_hash")));
+            response.setServices(new ArrayList<>());
+
+            String website = rs.getString("website");
+            String linkedin = rs.getString("linkedin");
+            String facebook = rs.getString("facebook");
+            String instagram = rs.getString("instagram");
+            String twitter = rs.getString("twitter");
+            if (website != null || linkedin != null || facebook != null || instagram != null || twitter != null) {
+                response.setSocialLinks(new SocialLinkResponse(website, linkedin, facebook, instagram, twitter));
+            }
+            return response;
+        }
+    }
+
+    private interface CompanySink {
+        void write(CompanyResponse company);
+    }
+
+    private final class NdjsonSink implements CompanySink {
+
+        private final Writer writer;
+
+        private NdjsonSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(CompanyResponse company) {
+            try {
+                writer.write(objectMapper.writeValueAsString(company));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class CsvSink implements CompanySink {
+
+        private final Writer writer;
+
+        private CsvSink(Writer writer) {
+            this.writer = writer;
+            writeRow(new ArrayList<>(CSV_COLUMNS));
+        }
+
+        @Override
+        public void write(CompanyResponse company) {
+
+            SocialLinkResponse links = company.getSocialLinks() != null
+                    ? company.getSocialLinks()
+                    : new SocialLinkResponse();
+
+            List<ServiceResponse> services = company.getServices().isEmpty()
+                    ? List.of(new ServiceResponse())
+                    : company.getServices();
+
+            for (ServiceResponse service : services) {
+                List<String> row = new ArrayList<>(CSV_COLUMNS.size());
+                row.add(company.getEmail());
+                row.add(company.getCompanyName());
+                row.add(company.getCity());
+                row.add(service.getType());
+                row.add(service.getDescription());
+                row.add(service.getPhoneNumber());
+                row.add(service.getIsPhoneVisible() != null ? service.getIsPhoneVisible().toString() : null);
+                row.add(service.getOfferings() != null ? String.join("|", service.getOfferings()) : null);
+                row.add(links.getWebsite());
+                row.add(links.getLinkedin());
+                row.add(links.getFacebook());
+                row.add(links.getInstagram());
+                row.add(links.getTwitter());
+                writeRow(row);
+            }
+        }
+
+        private void writeRow(List<String> fields) {
+            try {
+                for (int i = 0; i < fields.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(escape(fields.get(i)));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            return quote ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+        }
+    }
+}
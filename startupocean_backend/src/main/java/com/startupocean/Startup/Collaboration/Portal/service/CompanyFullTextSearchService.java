@@ -0,0 +1,166 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.DatabasePlatform;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * PostgreSQL full-text search over companies.
+ *
+ * Each company has one row in {@code company_search_documents} holding a weighted
+ * tsvector of its name, city, offerings and service descriptions, backed by a GIN
+ * index. The row is rewritten in the same transaction as every company write, so
+ * search never has to scan or join the source tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompanyFullTextSearchService {
+
+    static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS company_search_documents (
+                company_id BIGINT PRIMARY KEY REFERENCES companies(company_id) ON DELETE CASCADE,
+                document TSVECTOR NOT NULL,
+                updated_at TIMESTAMP NOT NULL DEFAULT now()
+            )
+            """;
+
+    static final String CREATE_INDEX_SQL = """
+            CREATE INDEX IF NOT EXISTS idx_company_search_documents_document
+            ON company_search_documents USING GIN (document)
+            """;
+
+    /** (company_id, document, updated_at) for a company row {@code c} joined to {@code od} and {@code sd}. */
+    static final String DOCUMENT_COLUMNS_SQL = """
+            SELECT c.company_id,
+                   setweight(to_tsvector('english', coalesce(c.company_name, '')), 'A')
+                   || setweight(to_tsvector('english', coalesce(c.city, '')), 'B')
+                   || setweight(to_tsvector('english', coalesce(od.offering_text, '')), 'B')
+                   || setweight(to_tsvector('english', coalesce(sd.description_text, '')), 'C'),
+                   now()
+            """;
+
+    /** Looks up offerings and descriptions per company through the FK indexes; used for a few ids. */
+    static final String DOCUMENT_LOOKUP_SQL = DOCUMENT_COLUMNS_SQL + """
+            FROM companies c
+            LEFT JOIN LATERAL (
+                SELECT string_agg(o.offering_name, ' ') AS offering_text
+                FROM services s
+                JOIN offerings o ON o.service_id = s.service_id
+                WHERE s.company_id = c.company_id AND o.is_active = true
+            ) od ON true
+            LEFT JOIN LATERAL (
+                SELECT string_agg(s.description, ' ') AS description_text
+                FROM services s
+                WHERE s.company_id = c.company_id AND s.is_active = true
+            ) sd ON true
+            """;
+
+    /** Aggregates offerings and descriptions in one pass; used to build documents for the whole directory. */
+    static final String DOCUMENT_BULK_SQL = DOCUMENT_COLUMNS_SQL + """
+            FROM companies c
+            LEFT JOIN (
+                SELECT s.company_id, string_agg(o.offering_name, ' ') AS offering_text
+                FROM services s
+                JOIN offerings o ON o.service_id = s.service_id
+                WHERE o.is_active = true
+                GROUP BY s.company_id
+            ) od ON od.company_id = c.company_id
+            LEFT JOIN (
+                SELECT s.company_id, string_agg(s.description, ' ') AS description_text
+                FROM services s
+                WHERE s.is_active = true
+                GROUP BY s.company_id
+            ) sd ON sd.company_id = c.company_id
+            """;
+
+    static final String UPSERT_SUFFIX_SQL = """
+            ON CONFLICT (company_id)
+            DO UPDATE SET document = EXCLUDED.document, updated_at = EXCLUDED.updated_at
+            """;
+
+    static final String SEARCH_SQL = """
+            SELECT d.company_id
+            FROM company_search_documents d
+            JOIN companies c ON c.company_id = d.company_id
+            WHERE c.is_active = true
+            AND d.document @@ websearch_to_tsquery('english', :query)
+            ORDER BY ts_rank_cd(d.document, websearch_to_tsquery('english', :query)) DESC, d.company_id
+            LIMIT :limit
+            """;
+
+    private final DatabasePlatform databasePlatform;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    private volatile boolean available;
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+
+        if (!databasePlatform.isPostgres()) {
+            log.info("Full-text company search disabled: database is not PostgreSQL");
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+
+            int backfilled = jdbcTemplate.update(
+                    "INSERT INTO company_search_documents (company_id, document, updated_at) "
+                            + DOCUMENT_BULK_SQL
+                            + "WHERE NOT EXISTS (SELECT 1 FROM company_search_documents d WHERE d.company_id = c.company_id)");
+
+            available = true;
+            log.info("Full-text company search ready, backfilled {} documents", backfilled);
+
+        } catch (Exception e) {
+            log.error("Failed to initialize full-text company search", e);
+        }
+    }
+
+    /**
+     * Rebuilds the search documents of the given companies. Must run inside the
+     * transaction that wrote them, after their services and offerings are saved.
+     */
+    public void refresh(Collection<Long> companyIds) {
+
+        if (!available || companyIds.isEmpty()) {
+            return;
+        }
+
+        entityManager.flush();
+        entityManager.createNativeQuery(
+                        "INSERT INTO company_search_documents (company_id, document, updated_at) "
+                                + DOCUMENT_LOOKUP_SQL
+                                + "WHERE c.company_id IN (:companyIds) "
+                                + UPSERT_SUFFIX_SQL)
+                .setParameter("companyIds", companyIds)
+                .executeUpdate();
+    }
+
+    /** Returns the ids of matching active companies, best match first. */
+    @SuppressWarnings("unchecked")
+    public List<Long> search(String query, int limit) {
+
+        List<Number> ids = entityManager.createNativeQuery(SEARCH_SQL)
+                .setParameter("query", query)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        return ids.stream().map(Number::longValue).toList();
+    }
+}
@@ -0,0 +1,190 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.DatabasePlatform;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typo-tolerant company search over company and offering names.
+ *
+ * On PostgreSQL the names carry pg_trgm GIN indexes and candidates are found with the
+ * indexed {@code <%} operator, so only rows above the similarity threshold are read.
+ * Anywhere else (H2, or no permission to create the extension) an in-memory
+ * {@link TrigramIndex} is kept up to date from {@link CompanyChangedEvent}s instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompanyFuzzySearchService {
+
+    static final String CREATE_EXTENSION_SQL = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+    static final String CREATE_COMPANY_NAME_INDEX_SQL = """
+            CREATE INDEX IF NOT EXISTS idx_companies_company_name_trgm
+            ON companies USING GIN (lower(company_name) gin_trgm_ops)
+            """;
+
+    static final String CREATE_OFFERING_NAME_INDEX_SQL = """
+            CREATE INDEX IF NOT EXISTS idx_offerings_offering_name_trgm
+            ON offerings USING GIN (lower(offering_name) gin_trgm_ops)
+            """;
+
+    static final String SET_THRESHOLD_SQL =
+            "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)";
+
+    static final String SEARCH_SQL = """
+            SELECT m.company_id
+            FROM (
+                SELECT c.company_id, word_similarity(:query, lower(c.company_name)) AS score
+                FROM companies c
+                WHERE c.is_active = true
+                AND :query <% lower(c.company_name)
+                UNION ALL
+                SELECT s.company_id, word_similarity(:query, lower(o.offering_name)) AS score
+                FROM offerings o
+                JOIN services s ON s.service_id = o.service_id
+                JOIN companies c ON c.company_id = s.company_id
+                WHERE o.is_active = true AND c.is_active = true
+                AND :query <% lower(o.offering_name)
+            ) m
+            GROUP BY m.company_id
+            ORDER BY max(m.score) DESC, m.company_id
+            LIMIT :limit
+            """;
+
+    private final DatabasePlatform databasePlatform;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final CompanyRepository companyRepository;
+    private final OfferingRepository offeringRepository;
+
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+
+    @Value("${search.fuzzy.threshold:0.4}")
+    private double threshold;
+
+    private volatile boolean databaseIndexed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+
+        if (databasePlatform.isPostgres()) {
+            try {
+                jdbcTemplate.execute(CREATE_EXTENSION_SQL);
+                jdbcTemplate.execute(CREATE_COMPANY_NAME_INDEX_SQL);
+                jdbcTemplate.execute(CREATE_OFFERING_NAME_INDEX_SQL);
+
+                databaseIndexed = true;
+                log.info("Fuzzy company search using pg_trgm indexes");
+                return;
+
+            } catch (Exception e) {
+                log.warn("pg_trgm unavailable, fuzzy company search falls back to the in-memory trigram index", e);
+            }
+        }
+
+        rebuildTrigramIndex();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompanyChanged(CompanyChangedEvent event) {
+
+        if (databaseIndexed || !event.namesChanged()) {
+            return;
+        }
+
+        Long companyId = event.getCompanyId();
+        List<String> texts = new ArrayList<>();
+        List<Object[]> rows = companyRepository.findActiveNameAndCity(companyId);
+        if (!rows.isEmpty()) {
+            texts.add((String) rows.get(0)[1]);
+            texts.addAll(offeringRepository.findActiveOfferingNames(companyId));
+        }
+        trigramIndex.index(companyId, texts);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompaniesImported(CompaniesImportedEvent event) {
+
+        if (databaseIndexed) {
+            return;
+        }
+
+        Map<Long, List<String>> textsByCompany = new HashMap<>();
+        for (Object[] row : companyRepository.findActiveNamesAndCitiesIn(event.getCompanyIds())) {
+            List<String> texts = new ArrayList<>();
+            texts.add((String) row[1]);
+            textsByCompany.put((Long) row[0], texts);
+        }
+        for (Object[] row : offeringRepository.findActiveOfferingNamesByCompanyIn(event.getCompanyIds())) {
+            List<String> texts = textsByCompany.get((Long) row[0]);
+            if (texts != null) {
+                texts.add((String) row[1]);
+            }
+        }
+        textsByCompany.forEach(trigramIndex::index);
+    }
+
+    /** Returns the ids of active companies whose name or offerings resemble the query, most similar first. */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Long> search(String query, int limit) {
+
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        if (!databaseIndexed) {
+            return trigramIndex.search(query, threshold, limit);
+        }
+
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+
+        entityManager.createNativeQuery(SET_THRESHOLD_SQL)
+                .setParameter("threshold", String.valueOf(threshold))
+                .getSingleResult();
+
+        List<Number> ids = entityManager.createNativeQuery(SEARCH_SQL)
+                .setParameter("query", normalized)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    private void rebuildTrigramIndex() {
+
+        Map<Long, List<String>> textsByCompany = new HashMap<>();
+        for (Object[] row : companyRepository.findActiveNamesAndCities()) {
+            List<String> texts = new ArrayList<>();
+            texts.add((String) row[1]);
+            textsByCompany.put((Long) row[0], texts);
+        }
+        for (Object[] row : offeringRepository.findActiveOfferingNamesByCompany()) {
+            List<String> texts = textsByCompany.get((Long) row[0]);
+            if (texts != null) {
+                texts.add((String) row[1]);
+            }
+        }
+
+        trigramIndex.clear();
+        textsByCompany.forEach(trigramIndex::index);
+        log.info("In-memory trigram index built for {} companies", textsByCompany.size());
+    }
+}
@@ -0,0 +1,201 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.ServiceRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.SocialLinkRequest;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.entity.Offering;
+import com.startupocean.Startup.Collaboration.Portal.entity.ServiceEntity;
+import com.startupocean.Startup.Collaboration.Portal.entity.SocialLink;
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.ServiceRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.SocialLinkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies a {@link CompanyRequest} to the stored company graph by diffing it instead of
+ * deleting and re-inserting every service and offering.
+ *
+ * Incoming services are matched to stored ones of the same type in order; offerings are
+ * matched by name. Only real differences become writes: new rows are inserted, changed
+ * services updated, and unmatched services and offerings soft-deleted. All writes are
+ * handed to the repositories in bulk so Hibernate can send them as JDBC batches.
+ */
+@Component
+@RequiredArgsConstructor
+public class CompanyGraphReconciler {
+
+    private final ServiceRepository serviceRepository;
+    private final OfferingRepository offeringRepository;
+    private final SocialLinkRepository socialLinkRepository;
+
+    /** Must run inside the caller's transaction; the company itself is saved by the caller. */
+    public CompanyChanges reconcile(Company company, CompanyRequest request) {
+
+        CompanyChanges changes = new CompanyChanges();
+
+        if (!Objects.equals(company.getCompanyName(), request.getCompanyName())
+                || !Objects.equals(company.getCity(), request.getCity())) {
+            company.setCompanyName(request.getCompanyName());
+            company.setCity(request.getCity());
+            changes.profileChanged();
+        }
+
+        if (request.getServices() != null) {
+            reconcileServices(company, request.getServices(), changes);
+        }
+
+        if (request.getSocialLinks() != null) {
+            reconcileSocialLinks(company, request.getSocialLinks(), changes);
+        }
+
+        return changes;
+    }
+
+    private void reconcileServices(Company company, List<ServiceRequest> requested, CompanyChanges changes) {
+
+        List<ServiceEntity> stored = serviceRepository.findByCompanyAndIsActiveTrueOrderByServiceIdAsc(company);
+
+        Map<Long, List<Offering>> offeringsByService = new HashMap<>();
+        if (!stored.isEmpty()) {
+            for (Offering offering : offeringRepository.findByServiceInAndIsActiveTrueOrderByOfferingIdAsc(stored)) {
+                offeringsByService
+                        .computeIfAbsent(offering.getService().getServiceId(), id -> new ArrayList<>())
+                        .add(offering);
+            }
+        }
+
+        Map<Company.CompanyType, Deque<ServiceEntity>> unmatched = new EnumMap<>(Company.CompanyType.class);
+        for (ServiceEntity service : stored) {
+            unmatched.computeIfAbsent(service.getType(), type -> new ArrayDeque<>()).add(service);
+        }
+
+        List<ServiceEntity> servicesToSave = new ArrayList<>();
+        List<Offering> offeringsToSave = new ArrayList<>();
+
+        for (ServiceRequest s : requested) {
+
+            Company.CompanyType type = Company.CompanyType.valueOf(s.getType());
+            String phoneNumber = s.getPhoneNumber() != null && !s.getPhoneNumber().isBlank()
+                    ? s.getPhoneNumber()
+                    : null;
+            Boolean phoneVisible = s.getIsPhoneVisible() != null ? s.getIsPhoneVisible() : true;
+            List<String> offeringNames = s.getOfferings() != null ? s.getOfferings() : List.of();
+
+            Deque<ServiceEntity> candidates = unmatched.get(type);
+            ServiceEntity service = candidates != null ? candidates.poll() : null;
+
+            if (service == null) {
+                service = new ServiceEntity();
+                service.setCompany(company);
+                service.setType(type);
+                service.setDescription(s.getDescription());
+                service.setPhoneNumber(phoneNumber);
+                service.setIsPhoneVisible(phoneVisible);
+                service.setIsActive(true);
+                servicesToSave.add(service);
+                changes.serviceInserted();
+
+                for (String offeringName : offeringNames) {
+                    offeringsToSave.add(newOffering(service, offeringName));
+                    changes.offeringInserted();
+                }
+                continue;
+            }
+
+            if (!Objects.equals(service.getDescription(), s.getDescription())
+                    || !Objects.equals(service.getPhoneNumber(), phoneNumber)
+                    || !Objects.equals(service.getIsPhoneVisible(), phoneVisible)) {
+                service.setDescription(s.getDescription());
+                service.setPhoneNumber(phoneNumber);
+                service.setIsPhoneVisible(phoneVisible);
+                servicesToSave.add(service);
+                changes.serviceUpdated();
+            }
+
+            Map<String, Deque<Offering>> storedByName = new HashMap<>();
+            for (Offering offering : offeringsByService.getOrDefault(service.getServiceId(), List.of())) {
+                storedByName.computeIfAbsent(offering.getOfferingName(), name -> new ArrayDeque<>()).add(offering);
+            }
+            for (String offeringName : offeringNames) {
+                Deque<Offering> sameName = storedByName.get(offeringName);
+                if (sameName == null || sameName.poll() == null) {
+                    offeringsToSave.add(newOffering(service, offeringName));
+                    changes.offeringInserted();
+                }
+            }
+            for (Deque<Offering> leftovers : storedByName.values()) {
+                for (Offering offering : leftovers) {
+                    offering.softDelete();
+                    offeringsToSave.add(offering);
+                    changes.offeringDeleted();
+                }
+            }
+        }
+
+        for (Deque<ServiceEntity> leftovers : unmatched.values()) {
+            for (ServiceEntity service : leftovers) {
+                service.softDelete();
+                servicesToSave.add(service);
+                changes.serviceDeleted();
+
+                for (Offering offering : offeringsByService.getOrDefault(service.getServiceId(), List.of())) {
+                    offering.softDelete();
+                    offeringsToSave.add(offering);
+                    changes.offeringDeleted();
+                }
+            }
+        }
+
+        serviceRepository.saveAll(servicesToSave);
+        offeringRepository.saveAll(offeringsToSave);
+    }
+
+    private void reconcileSocialLinks(Company company, SocialLinkRequest requested, CompanyChanges changes) {
+
+        SocialLink socialLink = socialLinkRepository
+                .findByCompanyAndIsActiveTrue(company)
+                .orElse(null);
+
+        if (socialLink != null
+                && Objects.equals(socialLink.getWebsite(), requested.getWebsite())
+                && Objects.equals(socialLink.getLinkedin(), requested.getLinkedin())
+                && Objects.equals(socialLink.getFacebook(), requested.getFacebook())
+                && Objects.equals(socialLink.getInstagram(), requested.getInstagram())
+                && Objects.equals(socialLink.getTwitter(), requested.getTwitter())) {
+            return;
+        }
+
+        if (socialLink == null) {
+            socialLink = new SocialLink();
+            socialLink.setCompany(company);
+            socialLink.setIsActive(true);
+        }
+        socialLink.setWebsite(requested.getWebsite());
+        socialLink.setLinkedin(requested.getLinkedin());
+        socialLink.setFacebook(requested.getFacebook());
+        socialLink.setInstagram(requested.getInstagram());
+        socialLink.setTwitter(requested.getTwitter());
+
+        socialLinkRepository.save(socialLink);
+        changes.socialLinksChanged();
+    }
+
+    private static Offering newOffering(ServiceEntity service, String offeringName) {
+        Offering offering = new Offering();
+        offering.setService(service);
+        offering.setOfferingName(offeringName);
+        offering.setIsActive(true);
+        return offering;
+    }
+}
@@ -0,0 +1,497 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyImportError;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyImportResult;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.ServiceRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.SocialLinkRequest;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.entity.Offering;
+import com.startupocean.Startup.Collaboration.Portal.entity.ServiceEntity;
+import com.startupocean.Startup.Collaboration.Portal.entity.SocialLink;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.ServiceRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.SocialLinkRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk company import for onboarding whole cohorts at once.
+ *
+ * The upload is parsed as a stream, one company at a time, and every company is
+ * validated before it is queued. Valid companies are written in chunks, each in its own
+ * transaction with a large JDBC batch size, so a bad row never rolls back more than its
+ * chunk; if a chunk fails anyway it is retried row by row to pin the error on the
+ * offending company. Imports send no welcome emails; imported companies still reach the
+ * opposite-type companies through their next new-company digest, like any signup.
+ *
+ * NDJSON: one {@link CompanyRequest} JSON object per line.
+ * CSV: a header row, then one service per row; consecutive rows with the same email
+ * add services to the same company and offerings are separated by {@code |}. Columns:
+ * email, companyName, city, serviceType, serviceDescription, phoneNumber,
+ * isPhoneVisible, offerings, website, linkedin, facebook, instagram, twitter.
+ */
+@Service
+@Slf4j
+public class CompanyImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private final CompanyRepository companyRepository;
+    private final ServiceRepository serviceRepository;
+    private final OfferingRepository offeringRepository;
+    private final SocialLinkRepository socialLinkRepository;
+    private final CompanyFullTextSearchService fullTextSearchService;
+    private final CompanyDigestService companyDigestService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${company.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${company.import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${company.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public CompanyImportService(CompanyRepository companyRepository,
+                                ServiceRepository serviceRepository,
+                                OfferingRepository offeringRepository,
+                                SocialLinkRepository socialLinkRepository,
+                                CompanyFullTextSearchService fullTextSearchService,
+                                CompanyDigestService companyDigestService,
+                                ApplicationEventPublisher eventPublisher,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                Validator validator) {
+        this.companyRepository = companyRepository;
+        this.serviceRepository = serviceRepository;
+        this.offeringRepository = offeringRepository;
+        this.socialLinkRepository = socialLinkRepository;
+        this.fullTextSearchService = fullTextSearchService;
+        this.companyDigestService = companyDigestService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /** Imports every valid company in the stream; invalid ones are reported, not written. */
+    public CompanyImportResult importCompanies(InputStream input, Format format) throws IOException {
+
+        long start = System.nanoTime();
+        CompanyImportResult result = new CompanyImportResult();
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource rows = format == Format.CSV ? new CsvRows(new CsvReader(reader)) : new NdjsonRows(reader);
+
+        ImportRow row;
+        while ((row = rows.next()) != null) {
+
+            String error = row.error != null ? row.error : validate(row.request);
+            if (error == null && !seenEmails.add(row.request.getEmail())) {
+                error = "Duplicate email in this import";
+            }
+            if (error != null) {
+                reject(result, new CompanyImportError(row.line, row.email(), error));
+                continue;
+            }
+
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, result);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        writeChunk(chunk, result);
+        result.getErrors().sort(Comparator.comparingLong(CompanyImportError::getLine));
+
+        log.info("Company import finished: {} imported, {} failed in {} ms (welcome emails suppressed)",
+                result.getImported(), result.getFailed(), (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private void writeChunk(List<ImportRow> rows, CompanyImportResult result) {
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<CompanyImportError> rejected = new ArrayList<>();
+        try {
+            Integer written = transactionTemplate.execute(status -> persist(rows, rejected));
+            result.setImported(result.getImported() + (written != null ? written : 0));
+            rejected.forEach(error -> reject(result, error));
+
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                ImportRow row = rows.get(0);
+                reject(result, new CompanyImportError(row.line, row.email(),
+                        "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                return;
+            }
+            log.warn("Import chunk of {} companies failed, retrying one by one", rows.size(), e);
+            for (ImportRow row : rows) {
+                writeChunk(List.of(row), result);
+            }
+        }
+    }
+
+    private int persist(List<ImportRow> rows, List<CompanyImportError> rejected) {
+
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+        Set<String> existing = new HashSet<>(companyRepository.findExistingEmails(
+                rows.stream().map(ImportRow::email).toList()));
+
+        List<Company> companies = new ArrayList<>(rows.size());
+        List<ServiceEntity> services = new ArrayList<>();
+        List<Offering> offerings = new ArrayList<>();
+        List<SocialLink> socialLinks = new ArrayList<>();
+
+        for (ImportRow row : rows) {
+
+            if (existing.contains(row.email())) {
+                rejected.add(new CompanyImportError(row.line, row.email(), "Company already registered with this email"));
+                continue;
+            }
+
+            CompanyRequest request = row.request;
+            Company company = new Company();
+            company.setEmail(request.getEmail());
+            company.setCompanyName(request.getCompanyName());
+            company.setCity(request.getCity());
+            company.setIsActive(true);
+            companies.add(company);
+
+            for (ServiceRequest s : request.getServices() != null ? request.getServices() : List.<ServiceRequest>of()) {
+
+                ServiceEntity service = new ServiceEntity();
+                service.setCompany(company);
+                service.setType(Company.CompanyType.valueOf(s.getType()));
+                service.setDescription(s.getDescription());
+                service.setPhoneNumber(s.getPhoneNumber() != null && !s.getPhoneNumber().isBlank()
+                        ? s.getPhoneNumber()
+                        : null);
+                service.setIsPhoneVisible(s.getIsPhoneVisible() != null ? s.getIsPhoneVisible() : true);
+                service.setIsActive(true);
+                services.add(service);
+
+                for (String offeringName : s.getOfferings() != null ? s.getOfferings() : List.<String>of()) {
+                    Offering offering = new Offering();
+                    offering.setService(service);
+                    offering.setOfferingName(offeringName);
+                    offering.setIsActive(true);
+                    offerings.add(offering);
+                }
+            }
+
+            SocialLinkRequest links = request.getSocialLinks();
+            if (links != null) {
+                SocialLink socialLink = new SocialLink();
+                socialLink.setCompany(company);
+                socialLink.setWebsite(links.getWebsite());
+                socialLink.setLinkedin(links.getLinkedin());
+                socialLink.setFacebook(links.getFacebook());
+                socialLink.setInstagram(links.getInstagram());
+                socialLink.setTwitter(links.getTwitter());
+                socialLink.setIsActive(true);
+                socialLinks.add(socialLink);
+            }
+        }
+
+        companyRepository.saveAll(companies);
+        serviceRepository.saveAll(services);
+        offeringRepository.saveAll(offerings);
+        socialLinkRepository.saveAll(socialLinks);
+
+        List<Long> companyIds = companies.stream().map(Company::getCompanyId).toList();
+        fullTextSearchService.refresh(companyIds);
+
+        // opposite-type companies hear about these in their next digest
+        Map<Company, Set<Company.CompanyType>> types = new IdentityHashMap<>();
+        for (ServiceEntity service : services) {
+            types.computeIfAbsent(service.getCompany(), company -> EnumSet.noneOf(Company.CompanyType.class))
+                    .add(service.getType());
+        }
+        types.forEach(companyDigestService::recordSignup);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        eventPublisher.publishEvent(new CompaniesImportedEvent(companyIds));
+        return companies.size();
+    }
+
+    private String validate(CompanyRequest request) {
+
+        if (request.getEmail() == null || request.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        if (!EMAIL.matcher(request.getEmail()).matches()) {
+            return "Invalid email: " + request.getEmail();
+        }
+
+        String violation = firstViolation(validator.validate(request));
+        if (violation == null && request.getSocialLinks() != null) {
+            violation = firstViolation(validator.validate(request.getSocialLinks()));
+        }
+        if (violation != null) {
+            return violation;
+        }
+
+        if (request.getServices() == null) {
+            return null;
+        }
+        for (ServiceRequest service : request.getServices()) {
+            if (service.getType() == null
+                    || Arrays.stream(Company.CompanyType.values()).noneMatch(t -> t.name().equals(service.getType()))) {
+                return "Unknown service type: " + service.getType();
+            }
+            if (service.getDescription() == null || service.getDescription().isBlank()) {
+                return "Service description is required";
+            }
+            if (service.getDescription().length() > 250) {
+                return "Service description must be at most 250 characters";
+            }
+            if (service.getOfferings() != null) {
+                for (String offering : service.getOfferings()) {
+                    if (offering == null || offering.isBlank()) {
+                        return "Offering names must not be blank";
+                    }
+                    if (offering.length() > 255) {
+                        return "Offering names must be at most 255 characters";
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String firstViolation(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void reject(CompanyImportResult result, CompanyImportError error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(error);
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    /** One company read from the upload, or the reason it could not be read. */
+    private static final class ImportRow {
+
+        private final long line;
+        private final CompanyRequest request;
+        private final String error;
+
+        private ImportRow(long line, CompanyRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+
+        private String email() {
+            return request != null ? request.getEmail() : null;
+        }
+    }
+
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    private final class NdjsonRows implements RowSource {
+
+        private final BufferedReader reader;
+        private long line;
+
+        private NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRow(line, objectMapper.readValue(text, CompanyRequest.class), null);
+                } catch (JacksonException e) {
+                    return new ImportRow(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class CsvRows implements RowSource {
+
+        private static final List<String> COLUMNS = List.of(
+                "email", "companyname", "city", "servicetype", "servicedescription", "phonenumber",
+                "isphonevisible", "offerings", "website", "linkedin", "facebook", "instagram", "twitter");
+
+        private final CsvReader csv;
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        private List<String> lookahead;
+        private long lookaheadLine;
+
+        private CsvRows(CsvReader csv) throws IOException {
+            this.csv = csv;
+
+            List<String> header = csv.next();
+            if (header == null) {
+                return;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (!COLUMNS.contains(column)) {
+                    throw new IllegalArgumentException("Unknown CSV column: " + header.get(i));
+                }
+                columns.put(column, i);
+            }
+            if (!columns.containsKey("email") || !columns.containsKey("companyname")) {
+                throw new IllegalArgumentException("CSV header must contain email and companyName");
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+
+            List<String> record = lookahead;
+            long line = lookaheadLine;
+            lookahead = null;
+            if (record == null) {
+                record = csv.next();
+                line = csv.getRecordLine();
+            }
+            if (record == null) {
+                return null;
+            }
+            if (record.size() != columns.size()) {
+                return new ImportRow(line, null,
+                        "Expected " + columns.size() + " columns but found " + record.size());
+            }
+
+            CompanyRequest request = new CompanyRequest();
+            request.setEmail(get(record, "email"));
+            request.setCompanyName(get(record, "companyname"));
+            request.setCity(get(record, "city"));
+            request.setServices(new ArrayList<>());
+            request.setSocialLinks(socialLinks(record));
+            addService(request, record);
+
+            List<String> following;
+            while ((following = csv.next()) != null
+                    && following.size() == columns.size()
+                    && request.getEmail() != null
+                    && request.getEmail().equals(get(following, "email"))) {
+                addService(request, following);
+            }
+            lookahead = following;
+            lookaheadLine = csv.getRecordLine();
+
+            return new ImportRow(line, request, null);
+        }
+
+        private void addService(CompanyRequest request, List<String> record) {
+
+            String type = get(record, "servicetype");
+            if (type == null) {
+                return;
+            }
+
+            ServiceRequest service = new ServiceRequest();
+            service.setType(type.toUpperCase(Locale.ROOT));
+            service.setDescription(get(record, "servicedescription"));
+            service.setPhoneNumber(get(record, "phonenumber"));
+            String phoneVisible = get(record, "isphonevisible");
+            service.setIsPhoneVisible(phoneVisible != null ? Boolean.valueOf(phoneVisible) : null);
+
+            String offerings = get(record, "offerings");
+            service.setOfferings(offerings == null
+                    ? List.of()
+                    : Arrays.stream(offerings.split("\\|")).map(String::trim).toList());
+
+            request.getServices().add(service);
+        }
+
+        private SocialLinkRequest socialLinks(List<String> record) {
+
+            SocialLinkRequest links = new SocialLinkRequest(
+                    get(record, "website"),
+                    get(record, "linkedin"),
+                    get(record, "facebook"),
+                    get(record, "instagram"),
+                    get(record, "twitter"));
+
+            boolean any = Objects.nonNull(links.getWebsite()) || Objects.nonNull(links.getLinkedin())
+                    || Objects.nonNull(links.getFacebook()) || Objects.nonNull(links.getInstagram())
+                    || Objects.nonNull(links.getTwitter());
+            return any ? links : null;
+        }
+
+        private String get(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null) {
+                return null;
+            }
+            String value = record.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
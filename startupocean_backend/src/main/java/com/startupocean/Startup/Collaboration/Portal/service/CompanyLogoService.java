@@ -0,0 +1,137 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.entity.CompanyLogo;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyLogoRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Points companies at logos in the {@link LogoStore}. Only the signed-in owner of a
+ * company can replace its logo. The upload is streamed into the store before any
+ * transaction starts, so a slow client never holds a connection.
+ *
+ * Replaced logos stay on disk until the sweep on {@code logo.store.sweep-cron} deletes
+ * every logo no company uses that is older than {@code logo.store.sweep-grace}; the
+ * grace period covers uploads whose reference is not saved yet.
+ */
+@Service
+@Slf4j
+public class CompanyLogoService {
+
+    private final CompanyRepository companyRepository;
+    private final CompanyLogoRepository companyLogoRepository;
+    private final LogoStore logoStore;
+    private final LogoVariantService logoVariantService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration sweepGrace;
+
+    public CompanyLogoService(CompanyRepository companyRepository,
+                              CompanyLogoRepository companyLogoRepository,
+                              LogoStore logoStore,
+                              LogoVariantService logoVariantService,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${logo.store.sweep-grace:PT1H}") Duration sweepGrace) {
+        this.companyRepository = companyRepository;
+        this.companyLogoRepository = companyLogoRepository;
+        this.logoStore = logoStore;
+        this.logoVariantService = logoVariantService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweepGrace = sweepGrace;
+    }
+
+    /**
+     * Stores the image, makes it the company's logo and queues its resized variants.
+     *
+     * @throws IllegalArgumentException if the bytes are not a supported image type
+     * @throws AccessDeniedException if the caller does not own the company
+     */
+    public LogoStore.StoredLogo replaceLogo(Long companyId, InputStream in) throws IOException {
+
+        Company owned = companyRepository.findByCompanyIdAndIsActiveTrue(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found"));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !owned.getEmail().equals(authentication.getName())) {
+            throw new AccessDeniedException("Only the company's owner can change its logo");
+        }
+
+        LogoStore.StoredLogo stored = logoStore.store(in);
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            Company company = companyRepository.findById(companyId)
+                    .orElseThrow(() -> new RuntimeException("Company not found"));
+
+            CompanyLogo logo = companyLogoRepository.findById(companyId)
+                    .orElseGet(() -> {
+                        CompanyLogo created = new CompanyLogo();
+                        created.setCompanyId(companyId);
+                        return created;
+                    });
+            logo.setHash(stored.getHash());
+            logo.setSize(stored.getSize());
+            companyLogoRepository.save(logo);
+
+            // the logo URL is part of the profile, so its version has to change too
+            company.setUpdatedAt(LocalDateTime.now());
+            companyRepository.save(company);
+
+            CompanyChanges changes = new CompanyChanges();
+            changes.logoChanged();
+            eventPublisher.publishEvent(new CompanyChangedEvent(companyId, changes));
+        });
+
+        logoVariantService.submit(stored.getHash());
+
+        log.info("Company {} now uses logo {} ({} {} bytes)",
+                companyId, stored.getHash(), stored.getContentType(), stored.getSize());
+        return stored;
+    }
+
+    @Scheduled(cron = "${logo.store.sweep-cron:0 15 * * * *}")
+    public void sweepUnreferencedLogos() {
+        try {
+            sweepUnreferencedLogos(Instant.now().minus(sweepGrace));
+        } catch (IOException | RuntimeException e) {
+            log.error("Logo sweep failed", e);
+        }
+    }
+
+    /** Deletes the logos no company uses that were stored before {@code storedBefore}. */
+    public int sweepUnreferencedLogos(Instant storedBefore) throws IOException {
+        Set<String> referenced = new HashSet<>(companyLogoRepository.findAllHashes());
+        int deleted = logoStore.deleteUnreferenced(referenced, storedBefore);
+        if (deleted > 0) {
+            log.info("Deleted {} unused logo files", deleted);
+        }
+        return deleted;
+    }
+
+    /** Hash of the company's current logo, or null if it has none. */
+    public String findHash(Long companyId) {
+        return companyLogoRepository.findById(companyId)
+                .map(CompanyLogo::getHash)
+                .orElse(null);
+    }
+}
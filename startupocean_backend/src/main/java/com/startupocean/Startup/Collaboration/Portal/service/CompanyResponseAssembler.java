@@ -0,0 +1,129 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.ServiceResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.SocialLinkResponse;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.entity.Offering;
+import com.startupocean.Startup.Collaboration.Portal.entity.ServiceEntity;
+import com.startupocean.Startup.Collaboration.Portal.entity.SocialLink;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyLogoRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.ServiceRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.SocialLinkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link CompanyResponse} objects for a whole list of companies at once.
+ * Services, offerings, social links and logo hashes are loaded with one IN query each,
+ * so the number of round trips does not depend on how many companies are in the list.
+ */
+@Component
+@RequiredArgsConstructor
+public class CompanyResponseAssembler {
+
+    private final ServiceRepository serviceRepository;
+    private final OfferingRepository offeringRepository;
+    private final SocialLinkRepository socialLinkRepository;
+    private final CompanyLogoRepository companyLogoRepository;
+
+    public CompanyResponse toResponse(Company company) {
+        return toResponses(List.of(company)).get(0);
+    }
+
+    public List<CompanyResponse> toResponses(List<Company> companies) {
+
+        if (companies.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<ServiceEntity> services =
+                serviceRepository.findByCompanyInAndIsActiveTrueOrderByServiceIdAsc(companies);
+
+        Map<Long, List<String>> offeringsByService = new HashMap<>();
+        if (!services.isEmpty()) {
+            for (Offering offering : offeringRepository
+                    .findByServiceInAndIsActiveTrueOrderByOfferingIdAsc(services)) {
+                offeringsByService
+                        .computeIfAbsent(offering.getService().getServiceId(), id -> new ArrayList<>())
+                        .add(offering.getOfferingName());
+            }
+        }
+
+        Map<Long, List<ServiceResponse>> servicesByCompany = new HashMap<>();
+        for (ServiceEntity service : services) {
+            ServiceResponse sr = new ServiceResponse();
+            sr.setType(service.getType().name());
+            sr.setDescription(service.getDescription());
+            sr.setPhoneNumber(service.getPhoneNumber());
+            sr.setIsPhoneVisible(service.getIsPhoneVisible());
+            sr.setOfferings(offeringsByService.getOrDefault(service.getServiceId(), new ArrayList<>()));
+
+            servicesByCompany
+                    .computeIfAbsent(service.getCompany().getCompanyId(), id -> new ArrayList<>())
+                    .add(sr);
+        }
+
+        Map<Long, SocialLink> socialLinksByCompany = new HashMap<>();
+        for (SocialLink socialLink : socialLinkRepository.findByCompanyInAndIsActiveTrue(companies)) {
+            socialLinksByCompany.putIfAbsent(socialLink.getCompany().getCompanyId(), socialLink);
+        }
+
+        Map<Long, String> logoHashesByCompany = new HashMap<>();
+        for (Object[] row : companyLogoRepository.findHashesByCompanyIdIn(
+                companies.stream().map(Company::getCompanyId).toList())) {
+            logoHashesByCompany.put((Long) row[0], (String) row[1]);
+        }
+
+        List<CompanyResponse> responses = new ArrayList<>(companies.size());
+        for (Company company : companies) {
+            responses.add(buildResponse(
+                    company,
+                    servicesByCompany.getOrDefault(company.getCompanyId(), new ArrayList<>()),
+                    socialLinksByCompany.get(company.getCompanyId()),
+                    logoHashesByCompany.get(company.getCompanyId())
+            ));
+        }
+        return responses;
+    }
+
+    private CompanyResponse buildResponse(Company company,
+                                          List<ServiceResponse> services,
+                                          SocialLink socialLink,
+                                          String logoHash) {
+
+        CompanyResponse response = new CompanyResponse();
+
+        response.setCompanyId(company.getCompanyId());
+        response.setCompanyName(company.getCompanyName());
+        response.setEmail(company.getEmail());
+        response.setCity(company.getCity());
+        response.setCreatedAt(company.getCreatedAt());
+        response.setLogoUrl(logoUrl(logoHash));
+        response.setServices(services);
+
+        if (socialLink != null) {
+            SocialLinkResponse slResponse = new SocialLinkResponse();
+            slResponse.setWebsite(socialLink.getWebsite());
+            slResponse.setLinkedin(socialLink.getLinkedin());
+            slResponse.setFacebook(socialLink.getFacebook());
+            slResponse.setInstagram(socialLink.getInstagram());
+            slResponse.setTwitter(socialLink.getTwitter());
+
+            response.setSocialLinks(slResponse);
+        }
+
+        return response;
+    }
+
+    /** Versioned, immutable URL of a stored logo, or null for a company without one. */
+    public static String logoUrl(String logoHash) {
+        return logoHash != null ? "/upload/logos/" + logoHash : null;
+    }
+}
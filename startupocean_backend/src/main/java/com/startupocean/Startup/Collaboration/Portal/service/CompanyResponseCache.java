@@ -0,0 +1,98 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size-bounded cache of assembled {@link CompanyResponse}s keyed by company id.
+ *
+ * Misses are loaded through {@link CompanyResponseAssembler}, in one batch for list
+ * lookups. Entries are evicted after every committed company change and on logo upload;
+ * the expiry is only a safety net. Hit/miss, eviction and load-time metrics are
+ * published under the {@code cache.*} meters with {@code cache=companyResponses}.
+ *
+ * Cached responses are shared between callers and must not be modified.
+ */
+@Component
+public class CompanyResponseCache {
+
+    static final String CACHE_NAME = "companyResponses";
+
+    private final CompanyResponseAssembler assembler;
+    private final Cache<Long, CompanyResponse> cache;
+
+    public CompanyResponseCache(CompanyResponseAssembler assembler,
+                                MeterRegistry meterRegistry,
+                                @Value("${company.cache.max-size:10000}") long maxSize,
+                                @Value("${company.cache.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        this.assembler = assembler;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CompanyResponse get(Company company) {
+        return cache.get(company.getCompanyId(), id -> assembler.toResponse(company));
+    }
+
+    public List<CompanyResponse> getAll(List<Company> companies) {
+
+        Map<Long, Company> byId = new HashMap<>();
+        for (Company company : companies) {
+            byId.put(company.getCompanyId(), company);
+        }
+
+        Map<Long, CompanyResponse> responses = cache.getAll(byId.keySet(), missing -> {
+            List<Company> toLoad = new ArrayList<>();
+            for (Long companyId : missing) {
+                toLoad.add(byId.get(companyId));
+            }
+            Map<Long, CompanyResponse> loaded = new HashMap<>();
+            for (CompanyResponse response : assembler.toResponses(toLoad)) {
+                loaded.put(response.getCompanyId(), response);
+            }
+            return loaded;
+        });
+
+        List<CompanyResponse> ordered = new ArrayList<>(companies.size());
+        for (Company company : companies) {
+            ordered.add(responses.get(company.getCompanyId()));
+        }
+        return ordered;
+    }
+
+    /** The cached response of a company, or null; never loads and is not counted as a get. */
+    CompanyResponse peek(Long companyId) {
+        return cache.asMap().get(companyId);
+    }
+
+    public void evict(Long companyId) {
+        cache.invalidate(companyId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompanyChanged(CompanyChangedEvent event) {
+        evict(event.getCompanyId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompaniesImported(CompaniesImportedEvent event) {
+        cache.invalidateAll(event.getCompanyIds());
+    }
+}
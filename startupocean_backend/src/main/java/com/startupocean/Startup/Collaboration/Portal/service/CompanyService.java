@@ -3,15 +3,24 @@ package com.startupocean.Startup.Collaboration.Portal.service;
 import com.startupocean.Startup.Collaboration.Portal.dto.*;
 import com.startupocean.Startup.Collaboration.Portal.entity.*;
 import com.startupocean.Startup.Collaboration.Portal.repository.*;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.util.HashSet;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -19,12 +28,35 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CompanyService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int STREAM_BATCH_SIZE = 200;
+    static final int MAX_RANKED_RESULTS = 200;
+
+    public enum SearchMode {
+        LIKE,
+        FTS,
+        FUZZY
+    }
+
     private final CompanyRepository companyRepository;
     private final ServiceRepository CompanyServiceRepository;
     private final OfferingRepository offeringRepository;
     private final SocialLinkRepository socialLinkRepository;
     private final EmailService emailService;
+    private final CompanyDigestService companyDigestService;
     private final JwtService jwtService;
+    private final CompanyResponseAssembler companyResponseAssembler;
+    private final CompanyResponseCache companyResponseCache;
+    private final CompanyGraphReconciler companyGraphReconciler;
+    private final ObjectMapper objectMapper;
+    private final CompanyFullTextSearchService fullTextSearchService;
+    private final CompanyFuzzySearchService fuzzySearchService;
+    private final OfferingSearchIndex offeringSearchIndex;
+    private final CompanySuggestIndex companySuggestIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
     @Transactional
     public ApiResponse createCompany(CompanyRequest request) {
 
@@ -55,6 +87,10 @@ public class CompanyService {
             log.error("Error sending welcome email", e);
         }
 
+        // Sequence ids let these inserts queue up until flush and go out as JDBC batches
+        List<ServiceEntity> services = new ArrayList<>();
+        List<Offering> offerings = new ArrayList<>();
+
         if (request.getServices() != null) {
             for (ServiceRequest s : request.getServices()) {
 
@@ -74,22 +110,25 @@ public class CompanyService {
                                 : true
                 );
 
-                ServiceEntity savedService = CompanyServiceRepository.save(service);
+                services.add(service);
 
                 if (s.getOfferings() != null) {
                     for (String offeringName : s.getOfferings()) {
 
                         Offering offering = new Offering();
-                        offering.setService(savedService);
+                        offering.setService(service);
                         offering.setOfferingName(offeringName);
                         offering.setIsActive(true);
 
-                        offeringRepository.save(offering);
+                        offerings.add(offering);
                     }
                 }
             }
         }
 
+        CompanyServiceRepository.saveAll(services);
+        offeringRepository.saveAll(offerings);
+
         if (request.getSocialLinks() != null) {
             SocialLink socialLink = new SocialLink();
             socialLink.setCompany(savedCompany);
@@ -102,71 +141,17 @@ public class CompanyService {
 
             socialLinkRepository.save(socialLink);
         }
-        // notify opposite companies
-        try {
-
-            List<ServiceEntity> services =
-                    CompanyServiceRepository.findByCompany(savedCompany);
-
-            if (!services.isEmpty()) {
 
-                Set<String> startupRecipients = new HashSet<>();
-                Set<String> providerRecipients = new HashSet<>();
+        fullTextSearchService.refresh(List.of(savedCompany.getCompanyId()));
+        eventPublisher.publishEvent(new CompanyChangedEvent(savedCompany.getCompanyId()));
 
-                for (ServiceEntity service : services) {
+        // opposite-type companies hear about this one in their next digest
+        Set<Company.CompanyType> types = EnumSet.noneOf(Company.CompanyType.class);
+        services.forEach(service -> types.add(service.getType()));
+        companyDigestService.recordSignup(savedCompany, types);
 
-                    if (service.getType() == Company.CompanyType.STARTUP) {
-
-                        List<Company> providers =
-                                companyRepository.findCompaniesByServiceType(
-                                        Company.CompanyType.SERVICE_PROVIDER
-                                );
-
-                        providers.forEach(c -> {
-                            if (!c.getEmail().equals(savedCompany.getEmail())) {
-                                providerRecipients.add(c.getEmail());
-                            }
-                        });
-                    }
-
-                    if (service.getType() == Company.CompanyType.SERVICE_PROVIDER) {
-
-                        List<Company> startups =
-                                companyRepository.findCompaniesByServiceType(
-                                        Company.CompanyType.STARTUP
-                                );
-
-                        startups.forEach(c -> {
-                            if (!c.getEmail().equals(savedCompany.getEmail())) {
-                                startupRecipients.add(c.getEmail());
-                            }
-                        });
-                    }
-                }
-
-                // Notification loop madhe - correct template use kara
-                for (String email : providerRecipients) {
-                    emailService.sendNewStartupNotification(
-                            email,
-                            savedCompany.getCompanyName(),
-                            request.getStartupTemplate()
-                    );
-                }
-
-                for (String email : startupRecipients) {
-                    emailService.sendNewServiceProviderNotification(
-                            email,
-                            savedCompany.getCompanyName(),
-                            request.getProviderTemplate()
-                    );
-                }
-            }
-
-        } catch (Exception e) {
-            log.error("Error sending company notification emails", e);
-        }
-
-        return new ApiResponse(true, "Company created successfully", convertToResponse(savedCompany));
+        return new ApiResponse(true, "Company created successfully",
+                companyResponseAssembler.toResponse(savedCompany));
     }
     @Transactional
     public ApiResponse updateCompany(Long companyId, CompanyRequest request) {
@@ -175,8 +160,6 @@ public class CompanyService {
                 .findById(companyId)
                 .orElseThrow(() -> new RuntimeException("Company not found"));
 
-        byte[] existingLogo = company.getLogo();
-
         String email = SecurityContextHolder
                 .getContext()
                 .getAuthentication()
@@ -186,72 +169,49 @@ public class CompanyService {
             return new ApiResponse(false, "Unauthorized", null);
         }
 
-        company.setCompanyName(request.getCompanyName());
-        company.setCity(request.getCity());
-        company.setLogo(existingLogo);
+        CompanyChanges changes = companyGraphReconciler.reconcile(company, request);
+        log.info("Company {} updated: {}", companyId, changes);
 
-        Company updatedCompany = companyRepository.save(company);
-
-        List<ServiceEntity> existingServices = CompanyServiceRepository.findByCompany(company);
-        CompanyServiceRepository.deleteAll(existingServices);
-
-        if (request.getServices() != null) {
-
-            for (ServiceRequest s : request.getServices()) {
-
-                ServiceEntity service = new ServiceEntity();
-                service.setCompany(updatedCompany);
-                service.setDescription(s.getDescription());
-                service.setType(Company.CompanyType.valueOf(s.getType()));
+        Company updatedCompany = company;
+        if (!changes.isEmpty()) {
+            // updatedAt versions the whole profile, so bump it even if only services changed
+            company.setUpdatedAt(LocalDateTime.now());
+            updatedCompany = companyRepository.save(company);
 
-                service.setPhoneNumber(
-                        s.getPhoneNumber() != null && !s.getPhoneNumber().isBlank()
-                                ? s.getPhoneNumber()
-                                : null
-                );
+            CompanyChangedEvent event = new CompanyChangedEvent(companyId, changes);
+            if (event.searchTextChanged()) {
+                fullTextSearchService.refresh(List.of(companyId));
+            }
+            eventPublisher.publishEvent(event);
+        }
 
-                service.setIsPhoneVisible(
-                        s.getIsPhoneVisible() != null
-                                ? s.getIsPhoneVisible()
-                                : true
-                );
+        return new ApiResponse(true, "Company updated successfully",
+                companyResponseAssembler.toResponse(updatedCompany));
+    }
 
-                ServiceEntity savedService =
-                        CompanyServiceRepository.save(service);
+    @Transactional
+    public ApiResponse deleteCompany(Long companyId) {
 
-                if (s.getOfferings() != null) {
-                    for (String offeringName : s.getOfferings()) {
+        Company company = companyRepository
+                .findByCompanyIdAndIsActiveTrue(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found"));
 
-                        Offering offering = new Offering();
-                        offering.setService(savedService);
-                        offering.setOfferingName(offeringName);
-                        offering.setIsActive(true);
+        String email = SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getName();
 
-                        offeringRepository.save(offering);
-                    }
-                }
-            }
+        if (!company.getEmail().equals(email)) {
+            return new ApiResponse(false, "Unauthorized", null);
         }
 
-        if (request.getSocialLinks() != null) {
-
-            SocialLink socialLink = socialLinkRepository
-                    .findByCompanyAndIsActiveTrue(company)
-                    .orElse(new SocialLink());
-
-            socialLink.setCompany(updatedCompany);
-            socialLink.setWebsite(request.getSocialLinks().getWebsite());
-            socialLink.setLinkedin(request.getSocialLinks().getLinkedin());
-            socialLink.setFacebook(request.getSocialLinks().getFacebook());
-            socialLink.setInstagram(request.getSocialLinks().getInstagram());
-            socialLink.setTwitter(request.getSocialLinks().getTwitter());
-            socialLink.setIsActive(true);
+        company.softDelete();
+        companyRepository.save(company);
 
-            socialLinkRepository.save(socialLink);
-        }
+        companyResponseCache.evict(companyId);
+        eventPublisher.publishEvent(new CompanyChangedEvent(companyId));
 
-        return new ApiResponse(true, "Company updated successfully",
-                convertToResponse(updatedCompany));
+        return new ApiResponse(true, "Company deleted successfully", null);
     }
     public ApiResponse getMyCompany() {
 
@@ -272,18 +232,48 @@ public class CompanyService {
                 convertToResponse(company));
     }
 
+    public ApiResponse getMyDigestPreference() {
+
+        Company company = getAuthenticatedCompany();
+        if (company == null)
+            return new ApiResponse(false, "No company found", null);
+
+        return new ApiResponse(true, "Digest preference retrieved",
+                new DigestPreference(companyDigestService.getFrequency(company.getCompanyId())));
+    }
+
+    public ApiResponse updateMyDigestPreference(DigestPreference request) {
+
+        Company company = getAuthenticatedCompany();
+        if (company == null)
+            return new ApiResponse(false, "No company found", null);
+
+        companyDigestService.setFrequency(company.getCompanyId(), request.getFrequency());
+        return new ApiResponse(true, "Digest preference updated", request);
+    }
+
+    private Company getAuthenticatedCompany() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return companyRepository.findByEmailAndIsActiveTrue(email).orElse(null);
+    }
+
     public ApiResponse getAllCompanies() {
 
         List<Company> companies = companyRepository.findByIsActiveTrue();
 
-        List<CompanyResponse> responses = companies.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<CompanyResponse> responses = companyResponseAssembler.toResponses(companies);
 
         return new ApiResponse(true,
                 "Companies retrieved successfully",
                 responses);
     }
+    /** Version of a public company profile; null if unknown, so callers just serve the profile. */
+    public ResourceVersion getCompanyVersion(Long companyId) {
+        return companyRepository.findActiveUpdatedAt(companyId)
+                .map(ResourceVersion::of)
+                .orElse(null);
+    }
+
     public ApiResponse getCompanyById(Long companyId) {
         Company company = (Company) companyRepository.findByCompanyIdAndIsActiveTrue(companyId)
                 .orElseThrow(() -> new RuntimeException("Company not found"));
@@ -292,75 +282,172 @@ public class CompanyService {
                 convertToResponse(company));
     }
     public ApiResponse searchCompanies(String keyword) {
+        return searchCompanies(keyword, SearchMode.LIKE);
+    }
+
+    public ApiResponse searchCompanies(String keyword, SearchMode mode) {
+
+        if (mode == SearchMode.FTS) {
+            if (fullTextSearchService.isAvailable()) {
+                List<Company> ranked = findActiveInOrder(
+                        fullTextSearchService.search(keyword, MAX_RANKED_RESULTS));
+
+                return new ApiResponse(true, "Search results retrieved successfully",
+                        companyResponseAssembler.toResponses(ranked));
+            }
+            log.warn("Full-text search unavailable, falling back to LIKE search");
+        }
+
+        if (mode == SearchMode.FUZZY) {
+            List<Company> ranked = findActiveInOrder(
+                    fuzzySearchService.search(keyword, MAX_RANKED_RESULTS));
+
+            return new ApiResponse(true, "Search results retrieved successfully",
+                    companyResponseAssembler.toResponses(ranked));
+        }
+
         List<Company> companies = companyRepository.searchCompanies(keyword);
 
-        List<CompanyResponse> responses = companies.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<CompanyResponse> responses = companyResponseAssembler.toResponses(companies);
 
         return new ApiResponse(true, "Search results retrieved successfully", responses);
     }
     public ApiResponse searchByOffering(String offering) {
-        List<Company> companies = companyRepository.searchByOffering(offering);
+        List<Company> companies = offeringSearchIndex.isReady()
+                ? findActiveInOrder(offeringSearchIndex.search(offering, MAX_RANKED_RESULTS))
+                : companyRepository.searchByOffering(offering);
 
-        List<CompanyResponse> responses = companies.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<CompanyResponse> responses = companyResponseAssembler.toResponses(companies);
 
         return new ApiResponse(true, "Search results retrieved successfully", responses);
     }
 
-    CompanyResponse convertToResponse(Company company) {
+    public ApiResponse suggest(String prefix, Integer limit) {
 
-        CompanyResponse response = new CompanyResponse();
-
-        response.setCompanyId(company.getCompanyId());
-        response.setCompanyName(company.getCompanyName());
-        response.setEmail(company.getEmail());
-        response.setCity(company.getCity());
-        response.setCreatedAt(company.getCreatedAt());
-        response.setLogoUrl("/upload/logo/" + company.getCompanyId());
-
-        List<ServiceEntity> serviceEntities =
-                CompanyServiceRepository.findByCompany(company);
-        List<ServiceResponse> services = serviceEntities
-                .stream()
-                .map(service -> {
-                    ServiceResponse sr = new ServiceResponse();
-                    sr.setType(service.getType().name());
-                    sr.setDescription(service.getDescription());
-                    sr.setPhoneNumber(service.getPhoneNumber());
-                    sr.setIsPhoneVisible(service.getIsPhoneVisible());
-
-                    List<String> offerings = offeringRepository
-                            .findByServiceAndIsActiveTrue(service)
-                            .stream()
-                            .map(Offering::getOfferingName)
-                            .collect(Collectors.toList());
-
-                    sr.setOfferings(offerings);
-
-                    return sr;
-                })
-                .collect(Collectors.toList());
-
-        response.setServices(services);
-
-        SocialLink socialLink = socialLinkRepository
-                .findByCompanyAndIsActiveTrue(company)
-                .orElse(null);
+        int size = limit == null || limit < 1
+                ? CompanySuggestIndex.TOP_K
+                : Math.min(limit, CompanySuggestIndex.TOP_K);
 
-        if (socialLink != null) {
-            SocialLinkResponse slResponse = new SocialLinkResponse();
-            slResponse.setWebsite(socialLink.getWebsite());
-            slResponse.setLinkedin(socialLink.getLinkedin());
-            slResponse.setFacebook(socialLink.getFacebook());
-            slResponse.setInstagram(socialLink.getInstagram());
-            slResponse.setTwitter(socialLink.getTwitter());
+        return new ApiResponse(true, "Suggestions retrieved successfully",
+                companySuggestIndex.suggest(prefix, size));
+    }
 
-            response.setSocialLinks(slResponse);
+    /** Loads active companies for ranked ids, keeping the ranking order. */
+    private List<Company> findActiveInOrder(List<Long> companyIds) {
+
+        Map<Long, Company> byId = new HashMap<>();
+        for (Company company : companyRepository.findAllById(companyIds)) {
+            if (Boolean.TRUE.equals(company.getIsActive())) {
+                byId.put(company.getCompanyId(), company);
+            }
         }
 
-        return response;
+        List<Company> ordered = new ArrayList<>(byId.size());
+        for (Long companyId : companyIds) {
+            Company company = byId.get(companyId);
+            if (company != null) {
+                ordered.add(company);
+            }
+        }
+        return ordered;
+    }
+
+    public ApiResponse getCompaniesPage(String cursor, Integer size) {
+        return fetchPage(companyRepository::findActivePage, cursor, size);
+    }
+
+    public ApiResponse searchCompaniesPage(String keyword, String cursor, Integer size) {
+        return fetchPage((createdAt, companyId, limit) ->
+                companyRepository.searchCompaniesPage(keyword, createdAt, companyId, limit), cursor, size);
+    }
+
+    public ApiResponse searchByOfferingPage(String offering, String cursor, Integer size) {
+        return fetchPage((createdAt, companyId, limit) ->
+                companyRepository.searchByOfferingPage(offering, createdAt, companyId, limit), cursor, size);
+    }
+
+    public void streamCompanies(OutputStream out) {
+        stream(companyRepository::findActivePage, out);
+    }
+
+    public void streamSearchCompanies(String keyword, OutputStream out) {
+        stream((createdAt, companyId, limit) ->
+                companyRepository.searchCompaniesPage(keyword, createdAt, companyId, limit), out);
+    }
+
+    public void streamSearchByOffering(String offering, OutputStream out) {
+        stream((createdAt, companyId, limit) ->
+                companyRepository.searchByOfferingPage(offering, createdAt, companyId, limit), out);
+    }
+
+    private ApiResponse fetchPage(KeysetQuery query, String cursor, Integer size) {
+
+        CompanyCursor after;
+        try {
+            after = CompanyCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ApiResponse(false, "Invalid cursor", null);
+        }
+
+        int pageSize = size == null || size < 1
+                ? DEFAULT_PAGE_SIZE
+                : Math.min(size, MAX_PAGE_SIZE);
+
+        List<Company> companies = query.fetch(
+                after.getCreatedAt(), after.getCompanyId(), Limit.of(pageSize + 1));
+
+        boolean hasMore = companies.size() > pageSize;
+        if (hasMore) {
+            companies = companies.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore
+                ? CompanyCursor.after(companies.get(companies.size() - 1)).encode()
+                : null;
+
+        return new ApiResponse(true, "Companies retrieved successfully",
+                new CompanyPageResponse(companyResponseAssembler.toResponses(companies), nextCursor, hasMore));
+    }
+
+    /**
+     * Writes every matching company as one JSON array, walking the keyset in
+     * fixed-size batches so only one batch is held in memory at a time. Open-in-view
+     * keeps the request's persistence context for the whole response, so each written
+     * batch is detached from it before the next is read.
+     */
+    private void stream(KeysetQuery query, OutputStream out) {
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+
+            generator.writeStartArray();
+
+            CompanyCursor after = CompanyCursor.START;
+            List<Company> batch;
+
+            do {
+                batch = query.fetch(after.getCreatedAt(), after.getCompanyId(), Limit.of(STREAM_BATCH_SIZE));
+
+                for (CompanyResponse response : companyResponseAssembler.toResponses(batch)) {
+                    objectMapper.writeValue(generator, response);
+                }
+                generator.flush();
+
+                if (!batch.isEmpty()) {
+                    after = CompanyCursor.after(batch.get(batch.size() - 1));
+                }
+                entityManager.clear();
+            } while (batch.size() == STREAM_BATCH_SIZE);
+
+            generator.writeEndArray();
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<Company> fetch(LocalDateTime createdAt, Long companyId, Limit limit);
+    }
+
+    CompanyResponse convertToResponse(Company company) {
+        return companyResponseCache.get(company);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,329 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.ExecutorConfig;
+import com.startupocean.Startup.Collaboration.Portal.config.WorkloadExecutor;
+import com.startupocean.Startup.Collaboration.Portal.dto.SuggestionResponse;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prefix trie over company names, offering names and city names for the search box.
+ *
+ * Every node stores its best {@link #TOP_K} completions, so a lookup is one walk down
+ * the prefix. Suggestions are indexed from every word start ("pay" finds "Acme Payments").
+ * Offerings and cities are weighted by how many companies use them.
+ *
+ * The per-company source data is patched on every {@link CompanyChangedEvent}; the trie
+ * itself is immutable and rebuilt from all of it shortly afterwards on the maintenance
+ * executor, then published through a volatile field so readers never block. Writes
+ * within the rebuild delay share one rebuild.
+ */
+@Component
+@Slf4j
+public class CompanySuggestIndex {
+
+    static final int TOP_K = 10;
+    private static final Duration REBUILD_DELAY = Duration.ofMillis(500);
+
+    private final CompanyRepository companyRepository;
+    private final OfferingRepository offeringRepository;
+    private final TaskScheduler taskScheduler;
+    private final WorkloadExecutor maintenanceExecutor;
+
+    private final Map<Long, CompanyTerms> termsByCompany = new HashMap<>();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Trie trie = Trie.EMPTY;
+
+    public CompanySuggestIndex(CompanyRepository companyRepository,
+                               OfferingRepository offeringRepository,
+                               TaskScheduler taskScheduler,
+                               @Qualifier(ExecutorConfig.MAINTENANCE) WorkloadExecutor maintenanceExecutor) {
+        this.companyRepository = companyRepository;
+        this.offeringRepository = offeringRepository;
+        this.taskScheduler = taskScheduler;
+        this.maintenanceExecutor = maintenanceExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        Map<Long, List<String>> offeringsByCompany = new HashMap<>();
+        for (Object[] row : offeringRepository.findActiveOfferingNamesByCompany()) {
+            offeringsByCompany.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        synchronized (termsByCompany) {
+            termsByCompany.clear();
+            for (Object[] row : companyRepository.findActiveNamesAndCities()) {
+                Long companyId = (Long) row[0];
+                index(companyId, (String) row[1], (String) row[2],
+                        offeringsByCompany.getOrDefault(companyId, List.of()));
+            }
+        }
+
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompanyChanged(CompanyChangedEvent event) {
+
+        if (!event.namesChanged()) {
+            return;
+        }
+
+        Long companyId = event.getCompanyId();
+        List<Object[]> rows = companyRepository.findActiveNameAndCity(companyId);
+
+        if (rows.isEmpty()) {
+            remove(companyId);
+        } else {
+            index(companyId, (String) rows.get(0)[1], (String) rows.get(0)[2],
+                    offeringRepository.findActiveOfferingNames(companyId));
+        }
+
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompaniesImported(CompaniesImportedEvent event) {
+
+        Map<Long, List<String>> offeringsByCompany = new HashMap<>();
+        for (Object[] row : offeringRepository.findActiveOfferingNamesByCompanyIn(event.getCompanyIds())) {
+            offeringsByCompany.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        for (Object[] row : companyRepository.findActiveNamesAndCitiesIn(event.getCompanyIds())) {
+            Long companyId = (Long) row[0];
+            index(companyId, (String) row[1], (String) row[2],
+                    offeringsByCompany.getOrDefault(companyId, List.of()));
+        }
+
+        scheduleRebuild();
+    }
+
+    /** Sets the terms of one company; they are suggested after the next {@link #rebuild()}. */
+    void index(Long companyId, String name, String city, List<String> offerings) {
+        synchronized (termsByCompany) {
+            termsByCompany.put(companyId, new CompanyTerms(name, city, offerings));
+        }
+    }
+
+    void remove(Long companyId) {
+        synchronized (termsByCompany) {
+            termsByCompany.remove(companyId);
+        }
+    }
+
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+
+        Trie current = trie;
+        int[] ids = current.lookup(normalize(prefix));
+
+        List<SuggestionResponse> suggestions = new ArrayList<>(Math.min(limit, ids.length));
+        for (int i = 0; i < ids.length && i < limit; i++) {
+            Suggestion suggestion = current.suggestions[ids[i]];
+            suggestions.add(new SuggestionResponse(
+                    suggestion.text, suggestion.type, suggestion.companyId));
+        }
+        return suggestions;
+    }
+
+    synchronized void rebuild() {
+
+        rebuildScheduled.set(false);
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        Map<String, Suggestion> offerings = new HashMap<>();
+        Map<String, Suggestion> cities = new HashMap<>();
+
+        synchronized (termsByCompany) {
+            termsByCompany.forEach((companyId, terms) -> {
+                if (terms.name != null && !terms.name.isBlank()) {
+                    suggestions.add(new Suggestion(terms.name.trim(), "COMPANY", companyId));
+                }
+                addWeighted(cities, terms.city, "CITY");
+                for (String offering : new LinkedHashSet<>(terms.offerings)) {
+                    addWeighted(offerings, offering, "OFFERING");
+                }
+            });
+        }
+        suggestions.addAll(offerings.values());
+        suggestions.addAll(cities.values());
+
+        long start = System.nanoTime();
+        trie = Trie.build(suggestions);
+        log.debug("Suggest trie rebuilt with {} suggestions in {} ms",
+                suggestions.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> maintenanceExecutor.execute(this::rebuild), Instant.now().plus(REBUILD_DELAY));
+        }
+    }
+
+    private static void addWeighted(Map<String, Suggestion> target, String text, String type) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        target.computeIfAbsent(normalize(text), key -> new Suggestion(text.trim(), type, null)).weight++;
+    }
+
+    static String normalize(String text) {
+        return text == null
+                ? ""
+                : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static final class CompanyTerms {
+        private final String name;
+        private final String city;
+        private final List<String> offerings;
+
+        private CompanyTerms(String name, String city, List<String> offerings) {
+            this.name = name;
+            this.city = city;
+            this.offerings = offerings;
+        }
+    }
+
+    private static final class Suggestion {
+        private final String text;
+        private final String type;
+        private final Long companyId;
+        private int weight = 0;
+
+        private Suggestion(String text, String type, Long companyId) {
+            this.text = text;
+            this.type = type;
+            this.companyId = companyId;
+            if (companyId != null) {
+                weight = 1;
+            }
+        }
+    }
+
+    /** Immutable trie; suggestion ids are ranks, so smaller is better and top lists stay sorted. */
+    private static final class Trie {
+
+        private static final Trie EMPTY = new Trie(new Node(new char[0], new Node[0], new int[0]), new Suggestion[0]);
+
+        private final Node root;
+        private final Suggestion[] suggestions;
+
+        private Trie(Node root, Suggestion[] suggestions) {
+            this.root = root;
+            this.suggestions = suggestions;
+        }
+
+        private static Trie build(List<Suggestion> unsorted) {
+
+            Suggestion[] ranked = unsorted.toArray(new Suggestion[0]);
+            Arrays.sort(ranked, Comparator
+                    .comparingInt((Suggestion s) -> -s.weight)
+                    .thenComparing(s -> s.text, String.CASE_INSENSITIVE_ORDER));
+
+            BuildNode root = new BuildNode();
+            for (int id = 0; id < ranked.length; id++) {
+                String key = normalize(ranked[id].text);
+                for (int start = 0; start < key.length(); start++) {
+                    if (start == 0 || key.charAt(start - 1) == ' ') {
+                        root.insert(key, start, id);
+                    }
+                }
+            }
+            return new Trie(root.freeze(), ranked);
+        }
+
+        private int[] lookup(String prefix) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            return node == null ? new int[0] : node.top;
+        }
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(char[] keys, Node[] children, int[] top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    private static final class BuildNode {
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private final Set<Integer> terminal = new LinkedHashSet<>();
+
+        private void insert(String key, int offset, int id) {
+            BuildNode node = this;
+            for (int i = offset; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+            }
+            node.terminal.add(id);
+        }
+
+        /** Freezes children first, then keeps the K best ids from this node and its subtree. */
+        private Node freeze() {
+
+            char[] keys = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                frozen[i] = entry.getValue().freeze();
+                i++;
+            }
+
+            int[] top = terminal.stream().mapToInt(Integer::intValue).sorted().limit(TOP_K).toArray();
+            for (Node child : frozen) {
+                top = mergeTop(top, child.top);
+            }
+            return new Node(keys, frozen, top);
+        }
+
+        private static int[] mergeTop(int[] a, int[] b) {
+            int[] merged = new int[Math.min(TOP_K, a.length + b.length)];
+            int i = 0, j = 0, n = 0;
+            while (n < merged.length && (i < a.length || j < b.length)) {
+                int next = j >= b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+                if (n == 0 || merged[n - 1] != next) {
+                    merged[n++] = next;
+                }
+            }
+            return n == merged.length ? merged : Arrays.copyOf(merged, n);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, fields optionally quoted with
+ * {@code "}, quotes doubled inside quoted fields, which may span lines. Reads one record
+ * at a time so arbitrarily large files are never held in memory.
+ */
+class CsvReader {
+
+    private final Reader reader;
+
+    private long line = 1;
+    private long recordLine;
+    private int pending = -2;
+
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** Line number the last record returned by {@link #next()} started on. */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /** Returns the next record, skipping blank lines, or null at end of input. */
+    List<String> next() throws IOException {
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean started = false;
+        recordLine = line;
+
+        int c;
+        while ((c = read()) != -1) {
+
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            if (c == '\r') {
+                int following = read();
+                if (following != '\n') {
+                    unread(following);
+                }
+                c = '\n';
+            }
+
+            if (c == '\n') {
+                line++;
+                if (!started && field.isEmpty()) {
+                    recordLine = line;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+
+            started = true;
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+        }
+        if (!started && field.isEmpty()) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
@@ -3,6 +3,7 @@ package com.startupocean.Startup.Collaboration.Portal.service;
 import com.startupocean.Startup.Collaboration.Portal.entity.Company;
 import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,7 +12,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +21,10 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final CompanyRepository companyRepository;
 
+    /** Companies allowed to use the {@code /admin} endpoints. */
+    @Value("${admin.emails:}")
+    private Set<String> adminEmails;
+
     @Override
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
@@ -35,13 +41,19 @@ public class CustomUserDetailsService implements UserDetailsService {
                 true,
                 true,
                 true,
-                getAuthorities()
+                getAuthorities(company.getEmail())
         );
     }
 
 
-    private Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singleton(
+    private Collection<? extends GrantedAuthority> getAuthorities(String email) {
+        if (adminEmails.contains(email)) {
+            return List.of(
+                    new SimpleGrantedAuthority("ROLE_USER"),
+                    new SimpleGrantedAuthority("ROLE_ADMIN")
+            );
+        }
+        return List.of(
                 new SimpleGrantedAuthority("ROLE_USER")
         );
     }
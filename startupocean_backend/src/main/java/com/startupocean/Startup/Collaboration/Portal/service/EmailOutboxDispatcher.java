@@ -0,0 +1,298 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.EmailOutbox;
+import com.startupocean.Startup.Collaboration.Portal.repository.EmailOutboxRepository;
+import com.startupocean.Startup.Collaboration.Portal.config.ExecutorConfig;
+import com.startupocean.Startup.Collaboration.Portal.config.WorkloadExecutor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the emails queued in {@code email_outbox}.
+ *
+ * Each batch is claimed in a short transaction: due rows are locked with SKIP LOCKED and
+ * their {@code next_attempt_at} pushed forward by a lease, then the lock is released and
+ * the mail is sent with no transaction open. Another dispatcher (or this one after a
+ * restart) only picks a claimed row up again once its lease runs out, so an email is
+ * sent at least once; it can be sent twice if the process dies between sending it and
+ * recording that it was sent.
+ *
+ * Sent emails are deleted. A failed one is retried after a delay that doubles with every
+ * attempt, up to {@code mail.outbox.max-backoff}, and is marked FAILED after
+ * {@code mail.outbox.max-attempts}. Hitting the provider quota or an open SMTP circuit
+ * breaker does not count as an attempt, and no batch is claimed while the breaker is open.
+ *
+ * Each {@link EmailOutbox.Lane} is claimed and sent separately. BULK mail is sent on
+ * the bulk mail executor at every scheduled poll, so a long drain does not hold up the
+ * scheduler thread other jobs run on. PRIORITY mail is sent on the mail executor, as
+ * soon as a {@link PriorityMailQueuedEvent} says some was committed and at every poll
+ * for retries, over the connections {@link MailDispatcher} reserves for it. Per lane,
+ * {@code mail.lane.queue.depth} gauges the pending rows as of the last poll and
+ * {@code mail.lane.latency} times each email from queued to sent, with its p99 published.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final MailDispatcher mailDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final String fromEmail;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final WorkloadExecutor mailExecutor;
+    private final WorkloadExecutor bulkMailExecutor;
+
+    private final Map<EmailOutbox.Lane, AtomicLong> queueDepths = new EnumMap<>(EmailOutbox.Lane.class);
+    private final Map<EmailOutbox.Lane, Timer> latencies = new EnumMap<>(EmailOutbox.Lane.class);
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 MailDispatcher mailDispatcher,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier(ExecutorConfig.MAIL) WorkloadExecutor mailExecutor,
+                                 @Qualifier(ExecutorConfig.BULK_MAIL) WorkloadExecutor bulkMailExecutor,
+                                 @Value("${spring.mail.username}") String fromEmail,
+                                 @Value("${mail.outbox.enabled:true}") boolean enabled,
+                                 @Value("${mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${mail.outbox.lease:PT5M}") Duration lease,
+                                 @Value("${mail.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                                 @Value("${mail.outbox.max-backoff:PT6H}") Duration maxBackoff,
+                                 @Value("${mail.outbox.max-attempts:10}") int maxAttempts) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailDispatcher = mailDispatcher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fromEmail = fromEmail;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.mailExecutor = mailExecutor;
+        this.bulkMailExecutor = bulkMailExecutor;
+
+        for (EmailOutbox.Lane lane : EmailOutbox.Lane.values()) {
+            String tag = lane.name().toLowerCase(Locale.ROOT);
+            AtomicLong depth = new AtomicLong();
+            queueDepths.put(lane, depth);
+            Gauge.builder("mail.lane.queue.depth", depth, AtomicLong::get)
+                    .description("Pending emails in the outbox, as of the last poll")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            latencies.put(lane, Timer.builder("mail.lane.latency")
+                    .description("Time from queuing an email to sending it")
+                    .tag("lane", tag)
+                    .publishPercentiles(0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriorityMailQueued(PriorityMailQueuedEvent event) {
+        if (enabled) {
+            sendPriorityMail();
+        }
+    }
+
+    /** Sends bulk mail, retries priority mail and refreshes the queue-depth gauges. */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:PT5S}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refreshQueueDepths();
+            sendPriorityMail();
+            sendBulkMail();
+        } catch (RuntimeException e) {
+            log.error("Email outbox dispatch failed", e);
+        }
+    }
+
+    /**
+     * Drains the bulk lane on the bulk mail executor. When its queue is full the oldest
+     * queued drain is dropped, as for priority mail; with its single thread a poll that
+     * comes while a drain runs waits behind it instead of claiming mail alongside it.
+     */
+    private void sendBulkMail() {
+        bulkMailExecutor.execute(() -> {
+            try {
+                drain(EmailOutbox.Lane.BULK);
+            } catch (RuntimeException e) {
+                log.error("Bulk email dispatch failed", e);
+            }
+        });
+    }
+
+    /**
+     * Drains the priority lane on the mail executor. When its queue is full the oldest
+     * queued drain is dropped, which loses nothing: the drains still queued have not
+     * started, so they will claim this mail too.
+     */
+    private void sendPriorityMail() {
+        mailExecutor.execute(() -> {
+            try {
+                drain(EmailOutbox.Lane.PRIORITY);
+            } catch (RuntimeException e) {
+                log.error("Priority email dispatch failed", e);
+            }
+        });
+    }
+
+    /** Keeps sending batches of a lane while they come back full and at least some mail gets through. */
+    private void drain(EmailOutbox.Lane lane) {
+        Batch batch;
+        do {
+            batch = dispatchBatch(lane);
+        } while (batch.claimed() == batchSize && batch.delivered() > 0);
+    }
+
+    void refreshQueueDepths() {
+        Map<EmailOutbox.Lane, Long> counts = new EnumMap<>(EmailOutbox.Lane.class);
+        for (Object[] row : emailOutboxRepository.countByStatusPerLane(EmailOutbox.OutboxStatus.PENDING)) {
+            counts.put((EmailOutbox.Lane) row[0], (Long) row[1]);
+        }
+        queueDepths.forEach((lane, depth) -> depth.set(counts.getOrDefault(lane, 0L)));
+    }
+
+    /** Claims, sends and records one batch of a lane. */
+    Batch dispatchBatch(EmailOutbox.Lane lane) {
+
+        // leave the mail queued rather than claim it only to have the breaker refuse it
+        if (!mailDispatcher.isAvailable()) {
+            return new Batch(0, 0);
+        }
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> claim(lane));
+        if (claimed == null || claimed.isEmpty()) {
+            return new Batch(0, 0);
+        }
+
+        Map<Long, MessagingException> failures = new HashMap<>();
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(claimed.size());
+        for (EmailOutbox email : claimed) {
+            try {
+                MimeMessage message = toMessage(email);
+                messages.add(message);
+                ids.put(message, email.getEmailId());
+            } catch (MessagingException e) {
+                failures.put(email.getEmailId(), e);
+            }
+        }
+
+        int delivered = mailDispatcher.sendAll(lane, messages, (message, e) -> failures.put(ids.get(message), e));
+
+        transactionTemplate.executeWithoutResult(status -> record(claimed, failures));
+
+        LocalDateTime sentBy = LocalDateTime.now();
+        Timer latency = latencies.get(lane);
+        for (EmailOutbox email : claimed) {
+            if (!failures.containsKey(email.getEmailId()) && email.getCreatedAt() != null) {
+                latency.record(Duration.between(email.getCreatedAt(), sentBy));
+            }
+        }
+        log.debug("Email outbox {}: {} claimed, {} sent", lane, claimed.size(), delivered);
+        return new Batch(claimed.size(), delivered);
+    }
+
+    private List<EmailOutbox> claim(EmailOutbox.Lane lane) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = emailOutboxRepository.lockDue(EmailOutbox.OutboxStatus.PENDING, lane, now,
+                Limit.of(batchSize));
+        for (EmailOutbox email : due) {
+            email.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+
+    private void record(List<EmailOutbox> claimed, Map<Long, MessagingException> failures) {
+
+        List<Long> sent = new ArrayList<>(claimed.size());
+        for (EmailOutbox email : claimed) {
+            if (!failures.containsKey(email.getEmailId())) {
+                sent.add(email.getEmailId());
+            }
+        }
+        emailOutboxRepository.deleteAllByIdInBatch(sent);
+
+        if (failures.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (EmailOutbox email : emailOutboxRepository.findAllById(failures.keySet())) {
+
+            MessagingException e = failures.get(email.getEmailId());
+            email.setLastError(truncate(String.valueOf(e.getMessage()), 1000));
+
+            if (e instanceof MailDispatcher.QuotaExceededException || e instanceof MailDispatcher.CircuitOpenException) {
+                email.setNextAttemptAt(now.plus(initialBackoff));
+                continue;
+            }
+
+            email.setAttempts(email.getAttempts() + 1);
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(EmailOutbox.OutboxStatus.FAILED);
+                log.warn("Giving up on email {} to {} after {} attempts: {}",
+                        email.getEmailId(), email.getRecipient(), email.getAttempts(), e.getMessage());
+            } else {
+                email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+            }
+        }
+    }
+
+    /** initialBackoff, doubled for every attempt after the first, capped at maxBackoff. */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private MimeMessage toMessage(EmailOutbox email) throws MessagingException {
+
+        MimeMessage message = mailDispatcher.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true);
+
+        return message;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    record Batch(int claimed, int delivered) {
+    }
+}
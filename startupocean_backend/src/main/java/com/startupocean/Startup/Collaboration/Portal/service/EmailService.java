@@ -1,89 +1,156 @@
 package com.startupocean.Startup.Collaboration.Portal.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.entity.CompanySignupEvent;
+import com.startupocean.Startup.Collaboration.Portal.entity.EmailOutbox;
+import com.startupocean.Startup.Collaboration.Portal.repository.EmailOutboxRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Renders emails and queues them in {@code email_outbox}. Nothing here talks to SMTP:
+ * the rows join the caller's transaction, so an email is only sent if the change that
+ * caused it commits, and {@link EmailOutboxDispatcher} sends it in the background.
+ * OTPs go on the PRIORITY lane and wake its workers once committed; everything else is
+ * BULK.
+ *
+ * The built-in templates are compiled once here. Templates supplied by the frontend are
+ * compiled for each email: that is a single scan of the text, cheaper than hashing and
+ * comparing it to look up an earlier compile.
+ */
 @Service
-@RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final EmailTemplate defaultOtpTemplate;
+    private final EmailTemplate collaborationRequestTemplate;
+    private final EmailTemplate digestHeaderTemplate;
+    private final EmailTemplate digestEntryTemplate;
+    private final EmailTemplate digestFooterTemplate;
+    private final EmailTemplate enquiryTemplate;
+
+    public EmailService(EmailOutboxRepository emailOutboxRepository, ApplicationEventPublisher eventPublisher) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.defaultOtpTemplate = EmailTemplate.compile(DEFAULT_OTP_TEMPLATE);
+        this.collaborationRequestTemplate = EmailTemplate.compile(COLLABORATION_REQUEST_TEMPLATE);
+        this.digestHeaderTemplate = EmailTemplate.compile(DIGEST_HEADER_TEMPLATE);
+        this.digestEntryTemplate = EmailTemplate.compile(DIGEST_ENTRY_TEMPLATE);
+        this.digestFooterTemplate = EmailTemplate.compile(DIGEST_FOOTER_TEMPLATE);
+        this.enquiryTemplate = EmailTemplate.compile(ENQUIRY_TEMPLATE);
+    }
 
     public void sendOtpEmail(String toEmail, String otp, String customTemplate) {
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        String htmlContent = template(customTemplate, defaultOtpTemplate).render(Map.of("OTP", otp));
 
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("StartupOcean - Email Verification OTP");
+        emailOutboxRepository.save(new EmailOutbox(toEmail, "StartupOcean - Email Verification OTP", htmlContent,
+                EmailOutbox.Lane.PRIORITY));
+        eventPublisher.publishEvent(new PriorityMailQueuedEvent());
+    }
 
-            String htmlContent = (customTemplate != null && !customTemplate.isBlank())
-                    ? customTemplate.replace("{{OTP}}", otp)
-                    : getDefaultOtpTemplate(otp);
+    public void sendCollaborationRequestEmail(String toEmail, String companyName, String message) {
 
-            helper.setText(htmlContent, true);
+        String html = collaborationRequestTemplate.render(Map.of(
+                "companyName", text(companyName),
+                "message", text(message)
+        ));
 
-            mailSender.send(message);
+        sendEmail(toEmail, "New Collaboration Request from " + companyName, html);
+    }
 
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send email", e);
+    /** Queues one email listing the companies that joined since the recipient's last digest. */
+    public void sendCompanyDigest(String to, List<CompanySignupEvent> signups) {
+
+        StringBuilder body = new StringBuilder(2048 + 256 * signups.size());
+        digestHeaderTemplate.renderTo(body, Map.of("count", String.valueOf(signups.size())));
+        for (CompanySignupEvent signup : signups) {
+            digestEntryTemplate.renderTo(body, Map.of(
+                    "companyName", text(signup.getCompanyName()),
+                    "type", signup.getCompanyType() == Company.CompanyType.STARTUP ? "Startup" : "Service Provider",
+                    "location", signup.getCity() == null || signup.getCity().isBlank() ? "" : " · " + signup.getCity()
+            ));
         }
+        digestFooterTemplate.renderTo(body, Map.of());
+
+        String subject = signups.size() == 1
+                ? "New on StartupOcean: " + signups.get(0).getCompanyName()
+                : "New on StartupOcean: " + signups.size() + " companies joined";
+
+        sendEmail(to, subject, body.toString());
     }
 
-    private String getDefaultOtpTemplate(String otp) {
-        return """
-        <div style="font-family:Arial;background:#f5f5f5;padding:30px">
-          <div style="background:white;padding:20px;border-radius:10px">
-            <h2 style="color:#0d9488">StartupOcean</h2>
-
-            <p>Your OTP for verification:</p>
-
-            <h1 style="
-              text-align:center;
-              letter-spacing:6px;
-              color:#0d9488;
-              border:2px dashed #0d9488;
-              padding:12px;
-            ">
-              %s
-            </h1>
-
-            <p>This OTP is valid for 10 minutes.</p>
-
-            <hr/>
-            <p style="font-size:12px;color:gray">
-              StartupOcean Team
-            </p>
-          </div>
-        </div>
-        """.formatted(otp);
+    public void sendEnquiryEmail(String to, String name, String email, String phone, String message) {
+
+        String html = buildEnquiryHtml(
+                name,
+                email,
+                phone == null ? "N/A" : phone,
+                message
+        );
+
+        sendEmail(to, "New Enquiry Received", html);
     }
 
-    public void sendCollaborationRequestEmail(String toEmail, String companyName, String message) {
-        try {
+    String buildEnquiryHtml(String name, String email, String phone, String message) {
+        return enquiryTemplate.render(Map.of(
+                "name", text(name),
+                "email", text(email),
+                "phone", text(phone),
+                "message", text(message)
+        ));
+    }
 
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
+    public void sendEmail(String to, String subject, String body) {
+        emailOutboxRepository.save(new EmailOutbox(to, subject, body, EmailOutbox.Lane.BULK));
+    }
 
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("New Collaboration Request from " + companyName);
+    /** The client's template if it sent one, otherwise the built-in one. */
+    private EmailTemplate template(String custom, EmailTemplate fallback) {
+        return custom != null && !custom.isBlank() ? EmailTemplate.compile(custom) : fallback;
+    }
 
-            String html = """
+    private static String text(String value) {
+        return Objects.toString(value, "");
+    }
+
+    private static final String DEFAULT_OTP_TEMPLATE = """
+            <div style="font-family:Arial;background:#f5f5f5;padding:30px">
+              <div style="background:white;padding:20px;border-radius:10px">
+                <h2 style="color:#0d9488">StartupOcean</h2>
+
+                <p>Your OTP for verification:</p>
+
+                <h1 style="
+                  text-align:center;
+                  letter-spacing:6px;
+                  color:#0d9488;
+                  border:2px dashed #0d9488;
+                  padding:12px;
+                ">
+                  {{OTP}}
+                </h1>
+
+                <p>This OTP is valid for 10 minutes.</p>
+
+                <hr/>
+                <p style="font-size:12px;color:gray">
+                  StartupOcean Team
+                </p>
+              </div>
+            </div>
+            """;
+
+    private static final String COLLABORATION_REQUEST_TEMPLATE = """
                     <div style="margin:0;padding:0;background:#f0fdfa;font-family:'Segoe UI',Arial,sans-serif">
                            <div style="max-width:600px;margin:40px auto;background:#ffffff;border-radius:16px;overflow:hidden;box-shadow:0 4px 24px rgba(13,148,136,0.10)">
-                                  <div style="background:linear-gradient(135deg,#0d9488 0%%,#0f766e 100%%);padding:36px 40px;text-align:center">
+                                  <div style="background:linear-gradient(135deg,#0d9488 0%,#0f766e 100%);padding:36px 40px;text-align:center">
                                             <h1 style="margin:0 0 6px;color:#ffffff;font-size:26px;font-weight:800">StartupOcean 🌊</h1>
                                             <p style="margin:0;color:#99f6e4;font-size:13px;text-transform:uppercase;letter-spacing:1px">Collaboration Request</p>
                                           </div>
@@ -94,11 +161,11 @@ public class EmailService {
                                             </p>
                                             <div style="background:#f0fdfa;border:1.5px solid #99f6e4;border-radius:12px;padding:16px 24px;margin-bottom:20px">
                                               <p style="margin:0 0 2px;color:#6b7280;font-size:11px;text-transform:uppercase;letter-spacing:1.5px;font-weight:600">From</p>
-                                              <p style="margin:0;color:#0d9488;font-size:19px;font-weight:800">%s</p>
+                                              <p style="margin:0;color:#0d9488;font-size:19px;font-weight:800">{{companyName}}</p>
                                             </div>
                                             <div style="background:#f9fafb;border-left:4px solid #0d9488;border-radius:0 10px 10px 0;padding:18px 20px;margin-bottom:28px">
                                               <p style="margin:0 0 8px;color:#6b7280;font-size:12px;font-weight:600;text-transform:uppercase;letter-spacing:1px">Message</p>
-                                              <p style="margin:0;color:#111827;font-size:14px;line-height:1.8;font-style:italic">"%s"</p>
+                                              <p style="margin:0;color:#111827;font-size:14px;line-height:1.8;font-style:italic">"{{message}}"</p>
                                             </div>
                                             <div style="text-align:center;margin:32px 0 8px">
                                               <a href="https://startupocean.in"
@@ -112,28 +179,9 @@ public class EmailService {
                                           </div>
                                   </div>
                     </div>
-            """.formatted(companyName, message);
-
-            helper.setText(html, true);
-            mailSender.send(mimeMessage);
+            """;
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send collaboration email", e);
-        }
-    }
-
-    @Async
-    public void sendNewStartupNotification(String to, String startupName, String template) {
-
-        String subject = "New Startup Joined StartupOcean";
-
-        String body;
-
-        if (template != null && !template.isBlank()) {
-            body = template.replace("{{companyName}}", startupName);
-        } else {
-
-            body = """
+    private static final String DIGEST_HEADER_TEMPLATE = """
             <div style="font-family:Arial;background:#f4f7f9;padding:30px">
               <div style="max-width:600px;margin:auto;background:white;border-radius:10px;padding:30px">
 
@@ -141,62 +189,62 @@ public class EmailService {
 
                 <p>Hello,</p>
 
-                <p>A new <b>Startup</b> has joined the StartupOcean Community.</p>
+                <p>{{count}} new companies joined the StartupOcean Community since your last update.
+                   This could be a great opportunity to collaborate.</p>
+
+                <ul style="padding-left:18px">
+            """;
 
-                <h3 style="color:#0d9488">%s</h3>
+    private static final String DIGEST_ENTRY_TEMPLATE = """
+                  <li style="margin:8px 0">
+                    <b style="color:#0d9488">{{companyName}}</b>
+                    <span style="color:#6b7280">{{type}}{{location}}</span>
+                  </li>
+            """;
 
-                <p>This could be a great opportunity to collaborate.</p>
+    private static final String DIGEST_FOOTER_TEMPLATE = """
+                </ul>
 
                 <div style="margin:20px 0">
                   <a href="https://startupocean.in"
                      style="background:#0d9488;color:white;padding:12px 20px;
                      border-radius:6px;text-decoration:none">
-                     Explore Startup
+                     Explore Companies
                   </a>
                 </div>
 
                 <p style="font-size:12px;color:#888;margin-top:30px">
-                  © StartupOcean
+                  © StartupOcean · You can change how often you get these under your company settings.
                 </p>
 
               </div>
             </div>
-            """.formatted(startupName);
-        }
+            """;
 
-        sendEmail(to, subject, body);
-    }
-
-    @Async
-    public void sendNewServiceProviderNotification(String to, String providerName, String template) {
-
-        String subject = "New Service Provider Joined StartupOcean";
-
-        String body;
-
-        if (template != null && !template.isBlank()) {
-            body = template.replace("{{companyName}}", providerName);
-        } else {
-
-            body = """
+    private static final String ENQUIRY_TEMPLATE = """
             <div style="font-family:Arial;background:#f4f7f9;padding:30px">
               <div style="max-width:600px;margin:auto;background:white;border-radius:10px;padding:30px">
 
                 <h2 style="color:#0d9488">StartupOcean 🌊</h2>
 
-                <p>Hello,</p>
+                <h3 style="margin-top:10px">📩 New Enquiry Received</h3>
 
-                <p>A new <b>Service Provider</b> has joined StartupOcean.</p>
+                <hr/>
 
-                <h3 style="color:#0d9488">%s</h3>
+                <p><b>Name:</b> {{name}}</p>
+                <p><b>Email:</b> {{email}}</p>
+                <p><b>Phone:</b> {{phone}}</p>
 
-                <p>You can now explore their services for your startup.</p>
+                <div style="margin-top:20px;padding:15px;background:#f0fdfa;border-left:4px solid #0d9488">
+                  <p style="margin:0"><b>Message:</b></p>
+                  <p style="margin-top:10px">{{message}}</p>
+                </div>
 
-                <div style="margin:20px 0">
+                <div style="margin-top:25px;text-align:center">
                   <a href="https://startupocean.in"
                      style="background:#0d9488;color:white;padding:12px 20px;
                      border-radius:6px;text-decoration:none">
-                     Explore Services
+                     View Dashboard
                   </a>
                 </div>
 
@@ -206,80 +254,5 @@ public class EmailService {
 
               </div>
             </div>
-            """.formatted(providerName);
-        }
-
-        sendEmail(to, subject, body);
-    }
-
-    @Async
-    public void sendEnquiryEmail(String to, String name, String email, String phone, String message) {
-
-        String html = buildEnquiryHtml(
-                name,
-                email,
-                phone == null ? "N/A" : phone,
-                message
-        );
-
-        sendEmail(to, "New Enquiry Received", html);
-    }
-
-    String buildEnquiryHtml(String name, String email, String phone, String message) {
-        return """
-    <div style="font-family:Arial;background:#f4f7f9;padding:30px">
-      <div style="max-width:600px;margin:auto;background:white;border-radius:10px;padding:30px">
-
-        <h2 style="color:#0d9488">StartupOcean 🌊</h2>
-
-        <h3 style="margin-top:10px">📩 New Enquiry Received</h3>
-
-        <hr/>
-
-        <p><b>Name:</b> %s</p>
-        <p><b>Email:</b> %s</p>
-        <p><b>Phone:</b> %s</p>
-
-        <div style="margin-top:20px;padding:15px;background:#f0fdfa;border-left:4px solid #0d9488">
-          <p style="margin:0"><b>Message:</b></p>
-          <p style="margin-top:10px">%s</p>
-        </div>
-
-        <div style="margin-top:25px;text-align:center">
-          <a href="https://startupocean.in"
-             style="background:#0d9488;color:white;padding:12px 20px;
-             border-radius:6px;text-decoration:none">
-             View Dashboard
-          </a>
-        </div>
-
-        <p style="font-size:12px;color:#888;margin-top:30px">
-          © StartupOcean
-        </p>
-
-      </div>
-    </div>
-    """.formatted(name, email, phone, message);
-    }
-
-    @Async
-    public void sendEmail(String to, String subject, String body) {
-
-        try {
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-
-            helper.setText(body, true);
-
-            mailSender.send(message);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send email", e);
-        }
-    }
-}
\ No newline at end of file
+            """;
+}
@@ -0,0 +1,119 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML email template compiled into a plan of literal segments and {@code {{name}}}
+ * placeholders, so rendering is a single pass of appends with no searching or copying
+ * of the template. Values are HTML-escaped. A placeholder with no value is written back
+ * unchanged, which is what the old {@code String.replace} calls did.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class EmailTemplate {
+
+    /** Builders above this size are dropped after use instead of being kept per thread. */
+    private static final int MAX_REUSED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    /** {@code literals[i]} comes before {@code names[i]}; the last literal follows the last placeholder. */
+    private final String[] literals;
+    private final String[] names;
+    /** The placeholders as written, put back when there is no value. */
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, String[] names, String[] placeholders) {
+        this.literals = literals;
+        this.names = names;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    static EmailTemplate compile(String source) {
+
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int from = 0;
+        int search = 0;
+        int open;
+        while ((open = source.indexOf("{{", search)) >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                break;
+            }
+            String name = source.substring(open + 2, close).trim();
+            if (name.isEmpty() || name.contains("{")) {
+                // "{{{name}}}" or "{{}}": the placeholder, if any, starts further on
+                search = open + 1;
+                continue;
+            }
+            literals.add(source.substring(from, open));
+            names.add(name);
+            placeholders.add(source.substring(open, close + 2));
+            from = close + 2;
+            search = from;
+        }
+        literals.add(source.substring(from));
+
+        return new EmailTemplate(literals.toArray(String[]::new), names.toArray(String[]::new),
+                placeholders.toArray(String[]::new));
+    }
+
+    /** Renders into a per-thread builder and returns the result. */
+    public String render(Map<String, ?> values) {
+
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        renderTo(out, values);
+        String rendered = out.toString();
+
+        if (out.capacity() > MAX_REUSED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    /** Appends the rendered template to {@code out}. */
+    public void renderTo(StringBuilder out, Map<String, ?> values) {
+
+        out.ensureCapacity(out.length() + literalLength + 64 * names.length);
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            Object value = values.get(names[i]);
+            if (value != null) {
+                appendEscaped(out, value.toString());
+            } else {
+                out.append(placeholders[i]);
+            }
+        }
+        out.append(literals[names.length]);
+    }
+
+    int placeholderCount() {
+        return names.length;
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
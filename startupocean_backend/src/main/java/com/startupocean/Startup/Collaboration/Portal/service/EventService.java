@@ -3,6 +3,7 @@ package com.startupocean.Startup.Collaboration.Portal.service;
 import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
 import com.startupocean.Startup.Collaboration.Portal.dto.EventRequest;
 import com.startupocean.Startup.Collaboration.Portal.dto.EventResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.ResourceVersion;
 import com.startupocean.Startup.Collaboration.Portal.entity.Company;
 import com.startupocean.Startup.Collaboration.Portal.entity.Event;
 import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
@@ -70,6 +71,16 @@ public class EventService {
         return new ApiResponse(true, "Event updated successfully", convertToResponse(updatedEvent));
     }
 
+    public ResourceVersion getEventsVersion() {
+        return eventRepository.findActiveVersion();
+    }
+
+    public ResourceVersion getEventVersion(Long eventId) {
+        return eventRepository.findUpdatedAt(eventId)
+                .map(ResourceVersion::of)
+                .orElse(null);
+    }
+
     public ApiResponse getAllEvents() {
 
         List<Event> events = eventRepository.findByIsActiveTrueOrderByEventDateDesc();
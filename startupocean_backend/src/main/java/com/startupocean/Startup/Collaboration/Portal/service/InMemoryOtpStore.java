@@ -0,0 +1,171 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link OtpStore} in this JVM's memory, for a single backend node
+ * ({@code otp.store.type=memory}). Code, expiry and failed attempts of each email are
+ * one small record that every change replaces atomically, so a new code, a wrong guess
+ * and a successful verification for the same email cannot interleave.
+ *
+ * Expired codes are evicted by a hashed timing wheel with one slot per
+ * {@code otp.store.tick}, covering {@code otp.expiry.minutes}. Each email sits in the
+ * slot of its expiry; every tick {@link #sweep()} empties the slots that came due and
+ * drops their expired codes, so a sweep only touches the codes expiring in that tick.
+ * A new code for an email that already has one is not added to the wheel again; the
+ * sweep finds the newer expiry and moves the email to its slot.
+ *
+ * At most {@code otp.store.max-entries} emails hold a code; past that new emails are
+ * refused until codes expire or are used. A code is dropped after
+ * {@code otp.store.max-attempts} wrong guesses. The number of pending codes is
+ * published as {@code otp.store.size}.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final ConcurrentHashMap<String, Otp> otps = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String>[] wheel;
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final int maxEntries;
+    private final int maxAttempts;
+
+    private long sweptTick;
+
+    public InMemoryOtpStore(MeterRegistry meterRegistry,
+                            @Value("${otp.expiry.minutes:10}") int expiryMinutes,
+                            @Value("${otp.store.tick:PT1S}") Duration tick,
+                            @Value("${otp.store.max-entries:100000}") int maxEntries,
+                            @Value("${otp.store.max-attempts:5}") int maxAttempts) {
+        this.ttlMillis = Duration.ofMinutes(expiryMinutes).toMillis();
+        this.tickMillis = tick.toMillis();
+        this.maxEntries = maxEntries;
+        this.maxAttempts = maxAttempts;
+
+        // one slot per tick of the expiry, plus the tick in progress and the one being swept
+        @SuppressWarnings("unchecked")
+        ConcurrentLinkedQueue<String>[] slots = new ConcurrentLinkedQueue[(int) (ttlMillis / tickMillis) + 2];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.wheel = slots;
+        this.sweptTick = System.currentTimeMillis() / tickMillis;
+
+        Gauge.builder("otp.store.size", size, AtomicInteger::get)
+                .description("Emails with a pending OTP")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean put(String email, int code) {
+        return put(email, code, System.currentTimeMillis());
+    }
+
+    boolean put(String email, int code, long now) {
+
+        long expiresAt = now + ttlMillis;
+        boolean[] added = new boolean[1];
+        Otp stored = otps.compute(email, (key, previous) -> {
+            if (previous != null) {
+                return new Otp(code, expiresAt, 0);
+            }
+            if (size.getAndUpdate(count -> count < maxEntries ? count + 1 : count) >= maxEntries) {
+                return null;
+            }
+            added[0] = true;
+            return new Otp(code, expiresAt, 0);
+        });
+
+        if (added[0]) {
+            schedule(email, expiresAt);
+        }
+        return stored != null;
+    }
+
+    @Override
+    public Result verify(String email, String code) {
+        return verify(email, code, System.currentTimeMillis());
+    }
+
+    Result verify(String email, String code, long now) {
+
+        Result[] result = {Result.NOT_REQUESTED};
+        otps.computeIfPresent(email, (key, otp) -> {
+            if (otp.expiresAt() <= now) {
+                result[0] = Result.EXPIRED;
+            } else if (Integer.toString(otp.code()).equals(code)) {
+                result[0] = Result.VERIFIED;
+            } else if (otp.attempts() + 1 >= maxAttempts) {
+                result[0] = Result.TOO_MANY_ATTEMPTS;
+            } else {
+                result[0] = Result.INVALID;
+                return new Otp(otp.code(), otp.expiresAt(), otp.attempts() + 1);
+            }
+            size.decrementAndGet();
+            return null;
+        });
+        return result[0];
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @Scheduled(fixedRateString = "${otp.store.tick:PT1S}")
+    public void sweep() {
+        sweep(System.currentTimeMillis());
+    }
+
+    /** Evicts the codes expired by {@code now} from the slots due since the last sweep. */
+    synchronized void sweep(long now) {
+
+        long nowTick = now / tickMillis;
+        // after a pause longer than the wheel, one pass over every slot is enough
+        long from = Math.max(sweptTick + 1, nowTick - wheel.length + 1);
+        Map<String, Long> notDue = new HashMap<>();
+        for (long tick = from; tick <= nowTick; tick++) {
+            ConcurrentLinkedQueue<String> slot = wheel[(int) (tick % wheel.length)];
+            String email;
+            while ((email = slot.poll()) != null) {
+                Otp kept = otps.computeIfPresent(email, (key, otp) -> {
+                    if (otp.expiresAt() > now) {
+                        return otp;
+                    }
+                    size.decrementAndGet();
+                    return null;
+                });
+                if (kept != null) {
+                    notDue.put(email, kept.expiresAt());
+                }
+            }
+            // moved only once the slot is empty, as a code may be due a whole turn of the wheel later
+            notDue.forEach(this::schedule);
+            notDue.clear();
+        }
+        sweptTick = Math.max(sweptTick, nowTick);
+    }
+
+    private void schedule(String email, long expiresAt) {
+        // the first tick that starts at or after the expiry
+        long tick = (expiresAt + tickMillis - 1) / tickMillis;
+        wheel[(int) (tick % wheel.length)].add(email);
+    }
+
+    /** 4 + 8 + 4 bytes of state; codes are six digits and fit in an int. */
+    private record Otp(int code, long expiresAt, int attempts) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.DatabasePlatform;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * {@link OtpStore} in the shared PostgreSQL database ({@code otp.store.type=jdbc}), so
+ * any backend node can verify a code another node sent.
+ *
+ * Codes live in the unlogged table {@code pending_otps}: writes skip the WAL, and after
+ * a database crash the table comes back empty, which only means asking for a new code.
+ * Expiries are taken from the database clock so the nodes' clocks do not matter:
+ * <ul>
+ *   <li>a new code is a single-statement upsert that also resets the attempts</li>
+ *   <li>a guess locks the email's row, then deletes it if the guess was correct, the
+ *       code expired or this was the last allowed guess, and counts the attempt
+ *       otherwise; guesses for one email are thereby checked one at a time, each
+ *       against the attempts of all guesses before it</li>
+ * </ul>
+ * A guess commits in its own transaction, so a caller rolling back after a wrong code
+ * cannot undo the counted attempt.
+ * Every {@code otp.store.cleanup-interval} expired rows are deleted in batches of
+ * {@code otp.store.cleanup-batch-size}; rows another node is cleaning up are skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store.type", havingValue = "jdbc")
+@Slf4j
+public class JdbcOtpStore implements OtpStore {
+
+    static final String CREATE_TABLE_SQL = """
+            CREATE UNLOGGED TABLE IF NOT EXISTS pending_otps (
+                email VARCHAR(255) PRIMARY KEY,
+                code INT NOT NULL,
+                expires_at TIMESTAMPTZ NOT NULL,
+                attempts INT NOT NULL DEFAULT 0
+            )
+            """;
+
+    static final String CREATE_INDEX_SQL = """
+            CREATE INDEX IF NOT EXISTS idx_pending_otps_expires_at ON pending_otps (expires_at)
+            """;
+
+    static final String UPSERT_SQL = """
+            INSERT INTO pending_otps (email, code, expires_at, attempts)
+            VALUES (?, ?, now() + ? * INTERVAL '1 minute', 0)
+            ON CONFLICT (email)
+            DO UPDATE SET code = EXCLUDED.code, expires_at = EXCLUDED.expires_at, attempts = 0
+            """;
+
+    /** Returns (expired, matched, attempts) and holds the row until the guess is settled. */
+    static final String LOCK_SQL = """
+            SELECT expires_at <= now(), code = ?, attempts
+            FROM pending_otps
+            WHERE email = ?
+            FOR UPDATE
+            """;
+
+    static final String DELETE_SQL = """
+            DELETE FROM pending_otps WHERE email = ?
+            """;
+
+    static final String COUNT_ATTEMPT_SQL = """
+            UPDATE pending_otps SET attempts = attempts + 1 WHERE email = ?
+            """;
+
+    static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM pending_otps
+            WHERE email IN (
+                SELECT email FROM pending_otps
+                WHERE expires_at <= now()
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private final DatabasePlatform databasePlatform;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int expiryMinutes;
+    private final int maxAttempts;
+    private final int cleanupBatchSize;
+
+    public JdbcOtpStore(DatabasePlatform databasePlatform,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${otp.expiry.minutes:10}") int expiryMinutes,
+                        @Value("${otp.store.max-attempts:5}") int maxAttempts,
+                        @Value("${otp.store.cleanup-batch-size:1000}") int cleanupBatchSize) {
+        this.databasePlatform = databasePlatform;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expiryMinutes = expiryMinutes;
+        this.maxAttempts = maxAttempts;
+        this.cleanupBatchSize = cleanupBatchSize;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!databasePlatform.isPostgres()) {
+            throw new IllegalStateException("otp.store.type=jdbc needs PostgreSQL");
+        }
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+    }
+
+    /** Always true: unlike memory, the table is not capped. */
+    @Override
+    public boolean put(String email, int code) {
+        jdbcTemplate.update(UPSERT_SQL, email, code, expiryMinutes);
+        return true;
+    }
+
+    @Override
+    public Result verify(String email, String code) {
+
+        int guess = parseCode(code);
+        return transactionTemplate.execute(status -> {
+
+            List<Result> results = jdbcTemplate.query(LOCK_SQL, (rs, row) -> {
+                if (rs.getBoolean(1)) {
+                    return Result.EXPIRED;
+                }
+                if (rs.getBoolean(2)) {
+                    return Result.VERIFIED;
+                }
+                return rs.getInt(3) + 1 >= maxAttempts ? Result.TOO_MANY_ATTEMPTS : Result.INVALID;
+            }, guess, email);
+
+            if (results.isEmpty()) {
+                return Result.NOT_REQUESTED;
+            }
+            Result result = results.get(0);
+            jdbcTemplate.update(result == Result.INVALID ? COUNT_ATTEMPT_SQL : DELETE_SQL, email);
+            return result;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${otp.store.cleanup-interval:PT1M}")
+    public void deleteExpired() {
+        try {
+            int deleted = 0;
+            int batch;
+            do {
+                batch = jdbcTemplate.update(DELETE_EXPIRED_SQL, cleanupBatchSize);
+                deleted += batch;
+            } while (batch == cleanupBatchSize);
+            if (deleted > 0) {
+                log.debug("Deleted {} expired OTPs", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Expired OTP cleanup failed", e);
+        }
+    }
+
+    /** The code as stored, or -1 (which matches nothing) if {@code code} is not one. */
+    private static int parseCode(String code) {
+        if (code == null || code.isEmpty() || code.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) < '0' || code.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        int parsed = Integer.parseInt(code);
+        // "0123456" is not the code 123456
+        return Integer.toString(parsed).equals(code) ? parsed : -1;
+    }
+}
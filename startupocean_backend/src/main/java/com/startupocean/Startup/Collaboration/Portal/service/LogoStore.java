@@ -0,0 +1,275 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed logo files on local disk. Every image is stored once under the hex
+ * SHA-256 of its bytes ({@code <dir>/ab/abcdef...}), so identical uploads share a file
+ * and a file never changes after it is written. That is what allows logos to be served
+ * from hash URLs with an immutable cache lifetime.
+ *
+ * Uploads are streamed to a temporary file in {@code <dir>/incoming} while being hashed,
+ * then renamed into place, so a reader never sees a partially written logo. Resized
+ * variants sit next to their original as {@code <hash>-<size>} and are written the same way;
+ * an empty {@code <hash>-unresizable} marks an original no variants can be made of.
+ * Logos no company uses any more are removed by {@link #deleteUnreferenced}.
+ */
+@Component
+@Slf4j
+public class LogoStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int SNIFF_BYTES = 12;
+    private static final int BUFFER_BYTES = 16 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+
+    public LogoStore(@Value("${logo.store.dir:logos}") String directory) throws IOException {
+        this.root = Paths.get(directory).toAbsolutePath();
+        this.incoming = root.resolve("incoming");
+        Files.createDirectories(incoming);
+    }
+
+    /**
+     * Streams {@code in} into the store and returns what was stored.
+     *
+     * @throws IllegalArgumentException if the bytes are not a PNG, JPEG, GIF or WebP image
+     */
+    public StoredLogo store(InputStream in) throws IOException {
+
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            byte[] head = new byte[SNIFF_BYTES];
+            int headLength = 0;
+            long size = 0;
+
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_BYTES];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    if (headLength < SNIFF_BYTES) {
+                        int copied = Math.min(n, SNIFF_BYTES - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, copied);
+                        headLength += copied;
+                    }
+                    digest.update(buffer, 0, n);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                    size += n;
+                }
+                out.force(true);
+            }
+
+            MediaType contentType = sniff(head, headLength);
+            if (contentType == null) {
+                throw new IllegalArgumentException("Unsupported image type, expected PNG, JPEG, GIF or WebP");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (Files.exists(target)) {
+                log.debug("Logo {} already stored, reusing it", hash);
+                // a fresh timestamp keeps the sweep away until the new reference is saved
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredLogo(hash, contentType, size);
+
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Path of a stored logo, or null if {@code hash} is malformed or not in the store. */
+    public Path find(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return null;
+        }
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /** Path of a resized variant of a stored logo, or null if it has not been generated. */
+    public Path findVariant(String hash, int size) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return null;
+        }
+        Path path = variantPathOf(hash, size);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /** Stores an encoded variant of the logo {@code hash}, replacing any previous one. */
+    public void storeVariant(String hash, int size, byte[] encoded) throws IOException {
+
+        Path temp = Files.createTempFile(incoming, "variant-", ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(encoded);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Path target = variantPathOf(hash, size);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Records that no variants can be made of the logo {@code hash}, so none are tried again. */
+    public void markUnresizable(String hash) throws IOException {
+        Path marker = unresizablePathOf(hash);
+        Files.createDirectories(marker.getParent());
+        try {
+            Files.createFile(marker);
+        } catch (FileAlreadyExistsException e) {
+            // marked by a concurrent attempt
+        }
+    }
+
+    /** Whether {@link #markUnresizable} was called for the logo {@code hash}. */
+    public boolean isUnresizable(String hash) {
+        return hash != null && HASH.matcher(hash).matches() && Files.exists(unresizablePathOf(hash));
+    }
+
+    /**
+     * Deletes the logos not in {@code referenced}, with their variants, unless they were
+     * stored or reused after {@code storedBefore}. Returns how many files were deleted.
+     */
+    public int deleteUnreferenced(Set<String> referenced, Instant storedBefore) throws IOException {
+
+        int deleted = 0;
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root, "??")) {
+            for (Path prefix : prefixes) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(prefix)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        int dash = name.indexOf('-');
+                        String hash = dash < 0 ? name : name.substring(0, dash);
+                        if (!HASH.matcher(hash).matches() || referenced.contains(hash)) {
+                            continue;
+                        }
+                        // variants go with their original, whose age is what counts
+                        Path original = pathOf(hash);
+                        if (Files.exists(original)
+                                && Files.getLastModifiedTime(original).toInstant().isAfter(storedBefore)) {
+                            continue;
+                        }
+                        if (Files.deleteIfExists(file)) {
+                            deleted++;
+                        }
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /** Image type from the leading magic bytes, or null if it is not one we serve. */
+    public static MediaType sniff(byte[] head, int length) {
+
+        if (startsWith(head, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return MediaType.IMAGE_PNG;
+        }
+        if (startsWith(head, length, 0xFF, 0xD8, 0xFF)) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (startsWith(head, length, 'G', 'I', 'F', '8', '7', 'a')
+                || startsWith(head, length, 'G', 'I', 'F', '8', '9', 'a')) {
+            return MediaType.IMAGE_GIF;
+        }
+        if (length >= 12 && startsWith(head, length, 'R', 'I', 'F', 'F')
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return MediaType.parseMediaType("image/webp");
+        }
+        return null;
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path variantPathOf(String hash, int size) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-" + size);
+    }
+
+    private Path unresizablePathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-unresizable");
+    }
+
+    private static boolean startsWith(byte[] head, int length, int... magic) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((head[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Hash, sniffed type and size of a logo that is now in the store. */
+    public static final class StoredLogo {
+
+        private final String hash;
+        private final MediaType contentType;
+        private final long size;
+
+        private StoredLogo(String hash, MediaType contentType, long size) {
+            this.hash = hash;
+            this.contentType = contentType;
+            this.size = size;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public MediaType getContentType() {
+            return contentType;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
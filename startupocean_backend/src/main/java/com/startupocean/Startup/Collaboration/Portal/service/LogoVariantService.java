@@ -0,0 +1,224 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.ExecutorConfig;
+import com.startupocean.Startup.Collaboration.Portal.config.WorkloadExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Produces the fixed-size variants of stored logos, so the directory grid and avatars
+ * do not download a multi-megabyte original to show it at 64px.
+ *
+ * Each original is decoded once, subsampled while decoding when it is far larger than
+ * the biggest variant, then halved step by step down to every size. Opaque images are
+ * written as JPEG and images with transparency as PNG. Originals that cannot be decoded
+ * or are too large are marked in the {@link LogoStore} and served as they are from then on.
+ *
+ * Work runs on the media executor, a small pool with a bounded queue. When its queue
+ * is full the logo is skipped rather than queued, and its variants are generated the
+ * first time someone asks for one, so a burst of uploads never takes more CPU than the
+ * pool has threads.
+ */
+@Service
+@Slf4j
+public class LogoVariantService {
+
+    /** Longest side, in pixels, of every variant. Largest first. */
+    public static final List<Integer> SIZES = List.of(256, 128, 64);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final LogoStore logoStore;
+    private final WorkloadExecutor executor;
+    private final long maxPixels;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    public LogoVariantService(LogoStore logoStore,
+                              @Qualifier(ExecutorConfig.MEDIA) WorkloadExecutor executor,
+                              @Value("${logo.variants.max-pixels:50000000}") long maxPixels) {
+        this.logoStore = logoStore;
+        this.executor = executor;
+        this.maxPixels = maxPixels;
+    }
+
+    /** Queues generation of the variants of a stored logo, unless it is already queued. */
+    public void submit(String hash) {
+
+        if (!queued.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash);
+                } catch (Exception e) {
+                    log.warn("Could not generate variants of logo {}: {}", hash, e.getMessage());
+                } finally {
+                    queued.remove(hash);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            queued.remove(hash);
+            log.info("Logo variant queue is full, variants of {} will be generated on demand", hash);
+        }
+    }
+
+    /**
+     * Path of the {@code size} variant of a logo. If it does not exist yet, generation is
+     * queued and null is returned so the caller can fall back to the original.
+     */
+    public Path findOrSubmit(String hash, int size) {
+        Path variant = logoStore.findVariant(hash, size);
+        if (variant == null && logoStore.find(hash) != null && !logoStore.isUnresizable(hash)) {
+            submit(hash);
+        }
+        return variant;
+    }
+
+    void generate(String hash) throws IOException {
+
+        Path original = logoStore.find(hash);
+        if (original == null || SIZES.stream().allMatch(size -> logoStore.findVariant(hash, size) != null)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        BufferedImage image;
+        try {
+            image = decode(original, SIZES.get(0));
+        } catch (IIOException e) {
+            log.warn("Logo {} is not a readable image: {}", hash, e.getMessage());
+            image = null;
+        }
+        if (image == null) {
+            logoStore.markUnresizable(hash);
+            return;
+        }
+
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage current = image;
+        for (int size : SIZES) {
+            current = scaleDown(current, size, alpha);
+            logoStore.storeVariant(hash, size, encode(current, alpha));
+        }
+
+        log.debug("Generated {} variants of logo {} in {} ms",
+                SIZES.size(), hash, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Decodes the first image of the file, skipping source pixels while reading so the
+     * decoded image is no bigger than needed. Returns null for formats ImageIO cannot
+     * read and for images whose declared size is over {@code logo.variants.max-pixels}.
+     */
+    private BufferedImage decode(Path file, int largestSize) throws IOException {
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                log.debug("No image reader for {}, serving the original only", file.getFileName());
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Logo {} is {}x{}, too large to resize", file.getFileName(), width, height);
+                    return null;
+                }
+
+                // keep at least 4x the largest variant so the final downscale stays smooth
+                int subsampling = Math.max(1, Math.max(width, height) / (4 * largestSize));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Scales so the longest side is at most {@code size}, halving at a time for quality. */
+    private static BufferedImage scaleDown(BufferedImage source, int size, boolean alpha) {
+
+        BufferedImage current = source;
+        int longest = Math.max(current.getWidth(), current.getHeight());
+
+        while (longest > size) {
+            int next = Math.max(size, longest / 2);
+            double scale = (double) next / longest;
+            current = draw(current,
+                    Math.max(1, (int) Math.round(current.getWidth() * scale)),
+                    Math.max(1, (int) Math.round(current.getHeight() * scale)),
+                    alpha);
+            longest = next;
+        }
+
+        // always return our own pixel format, which the JPEG and PNG writers both accept
+        return current == source ? draw(source, source.getWidth(), source.getHeight(), alpha) : current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean alpha) {
+
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encode(BufferedImage image, boolean alpha) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (alpha) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
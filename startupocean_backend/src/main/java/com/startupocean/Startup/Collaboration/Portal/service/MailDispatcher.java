@@ -0,0 +1,294 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.EmailOutbox;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends mail over a {@link SmtpTransportPool} instead of opening a connection per
+ * message, within the provider's quotas.
+ *
+ * Two {@link TokenBucket}s guard every message: a per-second one that callers wait on
+ * (up to {@code mail.rate.max-wait}) and a per-day one that fails fast once empty,
+ * since waiting hours for it would only pile up threads. The day bucket is in memory,
+ * so it starts full after a restart.
+ *
+ * PRIORITY mail has {@code mail.lanes.priority.connections} of the connections,
+ * {@code mail.lanes.priority.per-second} of the per-second rate and its own bucket for
+ * them, and BULK mail stops {@code mail.lanes.priority.daily-reserve} short of the daily
+ * quota, so a flood of bulk mail never delays or starves an OTP. With no connections
+ * reserved both lanes share everything.
+ *
+ * Each lane's connections are also its bulkhead: at most that many threads talk to the
+ * server at once, the rest wait up to {@code mail.rate.max-wait} for one. Every send
+ * goes through the {@link SmtpCircuitBreaker}; while it is open messages fail at once
+ * with {@link CircuitOpenException} and stay in the outbox.
+ *
+ * A message that fails because the connection broke is retried once on a fresh
+ * connection. A message the server rejects for its recipients is not retried.
+ */
+@Component
+@Slf4j
+public class MailDispatcher {
+
+    private final JavaMailSenderImpl mailSender;
+    private final SmtpCircuitBreaker breaker;
+    private final TokenBucket perDay;
+    private final Duration maxWait;
+    private final Route bulk;
+    private final Route priority;
+
+    @Autowired
+    public MailDispatcher(JavaMailSenderImpl mailSender,
+                          SmtpCircuitBreaker breaker,
+                          @Value("${mail.pool.size:3}") int poolSize,
+                          @Value("${mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                          @Value("${mail.pool.max-idle:PT1M}") Duration maxIdle,
+                          @Value("${mail.rate.per-second:10}") int perSecond,
+                          @Value("${mail.rate.per-day:2000}") int perDay,
+                          @Value("${mail.rate.max-wait:PT30S}") Duration maxWait,
+                          @Value("${mail.lanes.priority.connections:1}") int priorityConnections,
+                          @Value("${mail.lanes.priority.per-second:2}") int priorityPerSecond,
+                          @Value("${mail.lanes.priority.daily-reserve:200}") int priorityDailyReserve) {
+
+        if (priorityConnections > 0 && (priorityConnections >= poolSize || priorityPerSecond >= perSecond)) {
+            throw new IllegalArgumentException("The priority mail lane must leave bulk mail at least one "
+                    + "connection and one message per second");
+        }
+        this.mailSender = mailSender;
+        this.breaker = breaker;
+        this.perDay = new TokenBucket(perDay, Duration.ofDays(1));
+        this.maxWait = maxWait;
+
+        if (priorityConnections > 0) {
+            this.bulk = new Route(pool(mailSender, poolSize - priorityConnections, maxMessagesPerConnection, maxIdle),
+                    new TokenBucket(perSecond - priorityPerSecond, Duration.ofSeconds(1)), priorityDailyReserve);
+            this.priority = new Route(pool(mailSender, priorityConnections, maxMessagesPerConnection, maxIdle),
+                    new TokenBucket(priorityPerSecond, Duration.ofSeconds(1)), 0);
+        } else {
+            this.bulk = new Route(pool(mailSender, poolSize, maxMessagesPerConnection, maxIdle),
+                    new TokenBucket(perSecond, Duration.ofSeconds(1)), 0);
+            this.priority = bulk;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulk.pool().closeAll();
+        if (priority != bulk) {
+            priority.pool().closeAll();
+        }
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /** Sends one message on the bulk lane, throwing if it could not be delivered. */
+    public void send(MimeMessage message) throws MessagingException {
+        List<MessagingException> failures = new ArrayList<>(1);
+        sendAll(EmailOutbox.Lane.BULK, List.of(message), (failed, e) -> failures.add(e));
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+    }
+
+    /**
+     * Sends messages on the bulk lane back to back over as few connections as possible
+     * and returns how many were delivered. Failures are logged; they do not stop the rest
+     * of the batch unless a quota ran out.
+     */
+    public int sendAll(List<MimeMessage> messages) {
+        return sendAll(EmailOutbox.Lane.BULK, messages, (failed, e) -> log.warn("Mail not sent: {}", e.getMessage()));
+    }
+
+    /** False while the circuit breaker would refuse every send, so callers need not try. */
+    public boolean isAvailable() {
+        return breaker.isCallPermitted();
+    }
+
+    long getConnectionsOpened() {
+        long opened = bulk.pool().getConnectionsOpened();
+        return priority == bulk ? opened : opened + priority.pool().getConnectionsOpened();
+    }
+
+    /** Like {@link #sendAll(List)} on {@code lane}, but tells {@code onFailure} about every message not delivered. */
+    int sendAll(EmailOutbox.Lane lane, List<MimeMessage> messages, FailureHandler onFailure) {
+
+        Route route = lane == EmailOutbox.Lane.PRIORITY ? priority : bulk;
+        SmtpTransportPool pool = route.pool();
+
+        int delivered = 0;
+        int next = 0;
+        boolean retried = false;
+        // whether the breaker has let messages[next] through
+        boolean permitted = false;
+
+        while (next < messages.size()) {
+
+            if (!permitted && !breaker.tryAcquire()) {
+                failRemaining(messages, next, new CircuitOpenException(), onFailure);
+                return delivered;
+            }
+            permitted = true;
+
+            SmtpTransportPool.PooledTransport pooled;
+            try {
+                pooled = pool.borrow(maxWait);
+            } catch (MessagingException e) {
+                if (e instanceof SmtpTransportPool.PoolExhaustedException) {
+                    breaker.release();
+                } else {
+                    breaker.recordFailure();
+                }
+                failRemaining(messages, next, e, onFailure);
+                return delivered;
+            }
+
+            boolean healthy = true;
+            try {
+                while (next < messages.size() && pool.canSend(pooled)) {
+
+                    if (!permitted && !breaker.tryAcquire()) {
+                        failRemaining(messages, next, new CircuitOpenException(), onFailure);
+                        return delivered;
+                    }
+                    permitted = true;
+                    MimeMessage message = messages.get(next);
+                    try {
+                        acquire(route);
+                        long start = System.nanoTime();
+                        deliver(pooled, message);
+                        breaker.recordSuccess(System.nanoTime() - start);
+                        permitted = false;
+                        delivered++;
+                        next++;
+                        retried = false;
+
+                    } catch (QuotaExceededException e) {
+                        breaker.release();
+                        failRemaining(messages, next, e, onFailure);
+                        return delivered;
+
+                    } catch (SendFailedException e) {
+                        // the server answered, it only refused the recipients
+                        breaker.recordSuccess(0);
+                        permitted = false;
+                        onFailure.failed(message, e);
+                        next++;
+                        retried = false;
+
+                    } catch (MessagingException e) {
+                        breaker.recordFailure();
+                        permitted = false;
+                        healthy = false;
+                        if (retried) {
+                            onFailure.failed(message, e);
+                            next++;
+                            retried = false;
+                        } else {
+                            log.debug("SMTP connection failed, retrying on a new one: {}", e.getMessage());
+                            retried = true;
+                        }
+                        break;
+                    }
+                }
+            } finally {
+                if (healthy) {
+                    pool.release(pooled);
+                } else {
+                    pool.discard(pooled);
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private void acquire(Route route) throws MessagingException {
+
+        if (perDay.reserve(0, route.dailyReserve()) < 0) {
+            throw new QuotaExceededException("Daily mail quota reached");
+        }
+        long wait = route.perSecond().reserve(maxWait.toNanos());
+        if (wait < 0) {
+            perDay.cancel();
+            throw new QuotaExceededException("Mail rate limit would delay this message beyond " + maxWait);
+        }
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MessagingException("Interrupted while waiting for the mail rate limit", e);
+            }
+        }
+    }
+
+    private static SmtpTransportPool pool(JavaMailSenderImpl mailSender, int size, int maxMessagesPerConnection,
+                                          Duration maxIdle) {
+        return new SmtpTransportPool(mailSender.getSession(), protocol(mailSender),
+                mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword(),
+                size, maxMessagesPerConnection, maxIdle);
+    }
+
+    /** Same resolution as {@link JavaMailSenderImpl}: explicit, then session property, then smtp. */
+    private static String protocol(JavaMailSenderImpl mailSender) {
+        if (mailSender.getProtocol() != null) {
+            return mailSender.getProtocol();
+        }
+        String fromSession = mailSender.getSession().getProperty("mail.transport.protocol");
+        return fromSession != null ? fromSession : "smtp";
+    }
+
+    private static void deliver(SmtpTransportPool.PooledTransport pooled, MimeMessage message)
+            throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        pooled.getTransport().sendMessage(message, message.getAllRecipients());
+        pooled.messageSent();
+    }
+
+    private static void failRemaining(List<MimeMessage> messages, int from, MessagingException e,
+                                      FailureHandler onFailure) {
+        for (int i = from; i < messages.size(); i++) {
+            onFailure.failed(messages.get(i), e);
+        }
+    }
+
+    /** The connections and per-second rate of a lane, and how much of the daily quota it must leave unused. */
+    private record Route(SmtpTransportPool pool, TokenBucket perSecond, long dailyReserve) {
+    }
+
+    interface FailureHandler {
+        void failed(MimeMessage message, MessagingException e);
+    }
+
+    /** Thrown instead of sending while the {@link SmtpCircuitBreaker} is open. */
+    public static class CircuitOpenException extends MessagingException {
+        public CircuitOpenException() {
+            super("SMTP circuit breaker is open");
+        }
+    }
+
+    /** Thrown when sending now would break the per-second or per-day quota. */
+    public static class QuotaExceededException extends MessagingException {
+        public QuotaExceededException(String message) {
+            super(message);
+        }
+    }
+}
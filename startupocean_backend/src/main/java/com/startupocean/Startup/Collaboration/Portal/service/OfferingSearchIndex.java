@@ -0,0 +1,373 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over offering names, one document per company, ranked with BM25.
+ *
+ * Postings are parallel int arrays of internal document numbers and term frequencies.
+ * Updating a company tombstones its old document and appends a new one; the index is
+ * compacted once tombstones outnumber live documents. Searches take the read lock and
+ * never touch the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OfferingSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MIN_DELETED_BEFORE_COMPACTION = 1024;
+
+    private final OfferingRepository offeringRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private final Map<Long, Integer> docByCompany = new HashMap<>();
+    private final BitSet deletedDocs = new BitSet();
+    private long[] companyByDoc = new long[256];
+    private int[] lengthByDoc = new int[256];
+    private String[][] termsByDoc = new String[256][];
+    private int[][] freqsByDoc = new int[256][];
+    private int maxDoc;
+    private int liveDocs;
+    private long totalLength;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        lock.writeLock().lock();
+        try {
+            clear();
+
+            Map<Long, List<String>> offeringsByCompany = new LinkedHashMap<>();
+            for (Object[] row : offeringRepository.findActiveOfferingNamesByCompany()) {
+                offeringsByCompany
+                        .computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add((String) row[1]);
+            }
+            offeringsByCompany.forEach(this::addDocument);
+
+            ready = true;
+            log.info("Offering search index built: {} companies, {} terms", liveDocs, postingsByTerm.size());
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompanyChanged(CompanyChangedEvent event) {
+        if (!event.offeringsChanged()) {
+            return;
+        }
+        index(event.getCompanyId(), offeringRepository.findActiveOfferingNames(event.getCompanyId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompaniesImported(CompaniesImportedEvent event) {
+
+        Map<Long, List<String>> offeringsByCompany = new HashMap<>();
+        for (Object[] row : offeringRepository.findActiveOfferingNamesByCompanyIn(event.getCompanyIds())) {
+            offeringsByCompany
+                    .computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add((String) row[1]);
+        }
+        offeringsByCompany.forEach(this::index);
+    }
+
+    /** Replaces the indexed offerings of one company; an empty list removes it. */
+    public void index(Long companyId, List<String> offeringNames) {
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(companyId);
+            if (!offeringNames.isEmpty()) {
+                addDocument(companyId, offeringNames);
+            }
+            if (deletedDocs.cardinality() > Math.max(MIN_DELETED_BEFORE_COMPACTION, liveDocs)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns company ids whose offerings match the query, best BM25 score first. */
+    public List<Long> search(String query, int limit) {
+
+        List<String> terms = analyze(query).stream().distinct().toList();
+
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty() || liveDocs == 0) {
+                return new ArrayList<>();
+            }
+
+            float averageLength = (float) totalLength / liveDocs;
+            float[] scores = new float[maxDoc];
+            IntList touched = new IntList();
+
+            for (String term : terms) {
+                Postings exact = postingsByTerm.get(term);
+                if (exact != null && exact.liveCount > 0) {
+                    accumulate(exact, averageLength, scores, touched);
+                } else if (term.length() >= MIN_PREFIX_LENGTH) {
+                    for (Postings expanded : postingsByTerm
+                            .subMap(term, true, term + Character.MAX_VALUE, false)
+                            .values()) {
+                        accumulate(expanded, averageLength, scores, touched);
+                    }
+                }
+            }
+
+            PriorityQueue<Integer> top = new PriorityQueue<>(
+                    (a, b) -> Float.compare(scores[a], scores[b]));
+            for (int i = 0; i < touched.size; i++) {
+                top.offer(touched.values[i]);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            Long[] companyIds = new Long[top.size()];
+            for (int i = companyIds.length - 1; i >= 0; i--) {
+                companyIds[i] = companyByDoc[top.poll()];
+            }
+            return Arrays.asList(companyIds);
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void accumulate(Postings postings, float averageLength, float[] scores, IntList touched) {
+
+        if (postings.liveCount == 0) {
+            return;
+        }
+
+        double idf = Math.log(1 + (liveDocs - postings.liveCount + 0.5) / (postings.liveCount + 0.5));
+
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            if (deletedDocs.get(doc)) {
+                continue;
+            }
+
+            int tf = postings.freqs[i];
+            double norm = tf * (K1 + 1)
+                    / (tf + K1 * (1 - B + B * lengthByDoc[doc] / averageLength));
+
+            if (scores[doc] == 0) {
+                touched.add(doc);
+            }
+            scores[doc] += (float) (idf * norm);
+        }
+    }
+
+    private void addDocument(Long companyId, List<String> offeringNames) {
+
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = 0;
+        for (String offeringName : offeringNames) {
+            for (String term : analyze(offeringName)) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+        }
+        if (length == 0) {
+            return;
+        }
+
+        int doc = maxDoc++;
+        ensureCapacity(doc + 1);
+
+        String[] terms = new String[frequencies.size()];
+        int[] freqs = new int[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            terms[i] = entry.getKey();
+            freqs[i] = entry.getValue();
+            postingsByTerm.computeIfAbsent(terms[i], t -> new Postings()).add(doc, freqs[i]);
+            i++;
+        }
+
+        companyByDoc[doc] = companyId;
+        lengthByDoc[doc] = length;
+        termsByDoc[doc] = terms;
+        freqsByDoc[doc] = freqs;
+        docByCompany.put(companyId, doc);
+        liveDocs++;
+        totalLength += length;
+    }
+
+    private void removeDocument(Long companyId) {
+
+        Integer doc = docByCompany.remove(companyId);
+        if (doc == null) {
+            return;
+        }
+
+        for (String term : termsByDoc[doc]) {
+            postingsByTerm.get(term).liveCount--;
+        }
+        deletedDocs.set(doc);
+        liveDocs--;
+        totalLength -= lengthByDoc[doc];
+    }
+
+    private void compact() {
+
+        int previousMaxDoc = maxDoc;
+        long[] companies = companyByDoc;
+        String[][] terms = termsByDoc;
+        int[][] freqs = freqsByDoc;
+        int[] lengths = lengthByDoc;
+        BitSet deleted = (BitSet) deletedDocs.clone();
+
+        clear();
+
+        for (int doc = 0; doc < previousMaxDoc; doc++) {
+            if (deleted.get(doc)) {
+                continue;
+            }
+            int newDoc = maxDoc++;
+            ensureCapacity(newDoc + 1);
+            for (int i = 0; i < terms[doc].length; i++) {
+                postingsByTerm.computeIfAbsent(terms[doc][i], t -> new Postings()).add(newDoc, freqs[doc][i]);
+            }
+            companyByDoc[newDoc] = companies[doc];
+            lengthByDoc[newDoc] = lengths[doc];
+            termsByDoc[newDoc] = terms[doc];
+            freqsByDoc[newDoc] = freqs[doc];
+            docByCompany.put(companies[doc], newDoc);
+            liveDocs++;
+            totalLength += lengths[doc];
+        }
+    }
+
+    private void clear() {
+        postingsByTerm.clear();
+        docByCompany.clear();
+        deletedDocs.clear();
+        companyByDoc = new long[256];
+        lengthByDoc = new int[256];
+        termsByDoc = new String[256][];
+        freqsByDoc = new int[256][];
+        maxDoc = 0;
+        liveDocs = 0;
+        totalLength = 0;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > companyByDoc.length) {
+            int capacity = Math.max(size, companyByDoc.length * 2);
+            companyByDoc = Arrays.copyOf(companyByDoc, capacity);
+            lengthByDoc = Arrays.copyOf(lengthByDoc, capacity);
+            termsByDoc = Arrays.copyOf(termsByDoc, capacity);
+            freqsByDoc = Arrays.copyOf(freqsByDoc, capacity);
+        }
+    }
+
+    /** Lower-cases, splits on anything that is not a letter or digit, and stems each token. */
+    static List<String> analyze(String text) {
+
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(stem(lower.substring(start, i)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /** Light English suffix stripping: plurals, then -ing. */
+    static String stem(String token) {
+
+        String stem = token;
+        int length = stem.length();
+        if (length <= 3) {
+            return stem;
+        }
+
+        if (stem.endsWith("ies") && !stem.endsWith("eies") && !stem.endsWith("aies")) {
+            stem = stem.substring(0, length - 3) + "y";
+        } else if (stem.endsWith("sses") || stem.endsWith("shes") || stem.endsWith("ches") || stem.endsWith("xes")) {
+            stem = stem.substring(0, length - 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = stem.substring(0, length - 1);
+        }
+
+        if (stem.endsWith("ing") && stem.length() > 5) {
+            stem = stem.substring(0, stem.length() - 3);
+        }
+        return stem;
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+        private int liveCount;
+
+        private void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+            liveCount++;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+/**
+ * The pending OTP of each email, chosen with {@code otp.store.type}: {@code memory}
+ * ({@link InMemoryOtpStore}) for a single backend node, {@code jdbc}
+ * ({@link JdbcOtpStore}) when several nodes share the database and a code may be
+ * verified on another node than the one that sent it.
+ *
+ * A code expires {@code otp.expiry.minutes} after it was issued and is dropped after
+ * {@code otp.store.max-attempts} wrong guesses.
+ */
+public interface OtpStore {
+
+    enum Result {
+        VERIFIED,
+        INVALID,
+        EXPIRED,
+        NOT_REQUESTED,
+        TOO_MANY_ATTEMPTS
+    }
+
+    /**
+     * Gives {@code email} the code {@code code}, replacing any code it had.
+     *
+     * @return false if the store is full and the email had no code yet
+     */
+    boolean put(String email, int code);
+
+    /** Checks {@code code} against the email's code; a verified, expired or exhausted code is removed. */
+    Result verify(String email, String code);
+}
@@ -0,0 +1,9 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+/**
+ * Published by {@link EmailService} when it queues PRIORITY mail, so that
+ * {@link EmailOutboxDispatcher} can send it as soon as the transaction commits instead
+ * of at its next poll.
+ */
+public class PriorityMailQueuedEvent {
+}
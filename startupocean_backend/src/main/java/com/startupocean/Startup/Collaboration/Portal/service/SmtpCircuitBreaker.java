@@ -0,0 +1,127 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Stops {@link MailDispatcher} from sending while the SMTP server is failing or slow,
+ * so mail stays queued in the outbox instead of every dispatcher thread spending the
+ * full socket timeout on each message.
+ *
+ * {@code mail.breaker.failure-threshold} failed sends in a row open the breaker; a send
+ * that takes longer than {@code mail.breaker.slow-call} counts as failed even if it got
+ * through. While open, every send is refused at once. After
+ * {@code mail.breaker.open-duration} the breaker is half-open: one send at a time is let
+ * through as a probe, which closes it on success and opens it again on failure.
+ *
+ * The state is published as {@code mail.breaker.state}, one gauge per state with the
+ * value 1 for the current one.
+ */
+@Component
+@Slf4j
+public class SmtpCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probing;
+
+    public SmtpCircuitBreaker(MeterRegistry meterRegistry,
+                              @Value("${mail.breaker.failure-threshold:5}") int failureThreshold,
+                              @Value("${mail.breaker.slow-call:PT3S}") Duration slowCall,
+                              @Value("${mail.breaker.open-duration:PT30S}") Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCall.toNanos();
+        this.openNanos = openDuration.toNanos();
+
+        for (State gauged : State.values()) {
+            Gauge.builder("mail.breaker.state", this, breaker -> breaker.getState() == gauged ? 1 : 0)
+                    .description("1 for the state the SMTP circuit breaker is in, 0 for the others")
+                    .tag("state", gauged.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** Whether {@link #tryAcquire()} would let a send through now. Changes nothing. */
+    synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.nanoTime() - openedAt >= openNanos;
+            case HALF_OPEN -> !probing;
+        };
+    }
+
+    /**
+     * Asks to send one message. Every true must be followed by {@link #recordSuccess(long)},
+     * {@link #recordFailure()} or {@link #release()}.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                log.info("SMTP circuit breaker half-open, probing the mail server");
+                probing = true;
+                return true;
+            default:
+                if (probing) {
+                    return false;
+                }
+                probing = true;
+                return true;
+        }
+    }
+
+    /** The server answered within {@code elapsedNanos}; a slow answer counts as a failure. */
+    synchronized void recordSuccess(long elapsedNanos) {
+        if (elapsedNanos > slowCallNanos) {
+            recordFailure();
+            return;
+        }
+        probing = false;
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("SMTP circuit breaker closed");
+        }
+    }
+
+    synchronized void recordFailure() {
+        probing = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            log.warn("SMTP circuit breaker open after {} failed or slow sends", consecutiveFailures);
+        }
+    }
+
+    /** Gives back a permit that was not used to talk to the server. */
+    synchronized void release() {
+        probing = false;
+    }
+}
@@ -0,0 +1,159 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed number of connected, authenticated SMTP transports shared by all senders, so
+ * the TCP, STARTTLS and AUTH round trips are paid once per connection instead of once
+ * per message.
+ *
+ * A connection is retired after {@code maxMessagesPerConnection} messages, since many
+ * providers cap that, and when it has been idle longer than {@code maxIdle}, since the
+ * server has probably dropped it by then. Idle connections are reused most recent first.
+ */
+@Slf4j
+class SmtpTransportPool {
+
+    private final Session session;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessagesPerConnection;
+    private final long maxIdleNanos;
+
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    SmtpTransportPool(Session session, String protocol, String host, int port, String username, String password,
+                      int size, int maxMessagesPerConnection, Duration maxIdle) {
+        this.session = session;
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.permits = new Semaphore(size, true);
+    }
+
+    /** Waits up to {@code timeout} for a free connection, connecting a new one if needed. */
+    PooledTransport borrow(Duration timeout) throws MessagingException {
+
+        try {
+            if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new PoolExhaustedException("No SMTP connection free within " + timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        try {
+            PooledTransport pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled != null && System.nanoTime() - pooled.lastUsed > maxIdleNanos) {
+                close(pooled);
+                pooled = null;
+            }
+            return pooled != null ? pooled : connect();
+
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** Returns a healthy connection, or closes it if it has sent as many messages as allowed. */
+    void release(PooledTransport pooled) {
+        pooled.lastUsed = System.nanoTime();
+        if (pooled.messagesSent >= maxMessagesPerConnection) {
+            close(pooled);
+        } else {
+            synchronized (idle) {
+                idle.offerFirst(pooled);
+            }
+        }
+        permits.release();
+    }
+
+    /** Closes a connection that failed, freeing its slot for a new one. */
+    void discard(PooledTransport pooled) {
+        close(pooled);
+        permits.release();
+    }
+
+    /** Whether the connection may send another message before it is retired. */
+    boolean canSend(PooledTransport pooled) {
+        return pooled.messagesSent < maxMessagesPerConnection;
+    }
+
+    void closeAll() {
+        synchronized (idle) {
+            idle.forEach(this::close);
+            idle.clear();
+        }
+    }
+
+    long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = session.getTransport(protocol);
+        transport.connect(host, port, username, password);
+        connectionsOpened.incrementAndGet();
+        log.debug("Opened SMTP connection to {}:{}", host, port);
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    /** Thrown when every connection stayed busy for the whole wait; says nothing about the server. */
+    static class PoolExhaustedException extends MessagingException {
+        PoolExhaustedException(String message) {
+            super(message);
+        }
+    }
+
+    /** A connection and how much it has been used. */
+    static final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsed = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        Transport getTransport() {
+            return transport;
+        }
+
+        void messageSent() {
+            messagesSent++;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import java.time.Duration;
+
+/**
+ * Token bucket that refills {@code capacity} tokens per {@code period} and never holds
+ * more than {@code capacity}. Tokens are handed out as reservations: the caller is told
+ * how long to wait and sleeps without holding the lock, and later callers queue behind
+ * the tokens already promised.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(long capacity, Duration period) {
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) period.toNanos();
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Takes one token and returns how many nanoseconds to wait before using it, or -1
+     * without taking anything if that wait would be longer than {@code maxWaitNanos}.
+     */
+    long reserve(long maxWaitNanos) {
+        return reserve(maxWaitNanos, 0);
+    }
+
+    /**
+     * Like {@link #reserve(long)}, but waits until {@code keep} tokens would still be left
+     * afterwards, so that many stay available to callers that pass a smaller {@code keep}.
+     */
+    synchronized long reserve(long maxWaitNanos, long keep) {
+
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+
+        double needed = keep + 1;
+        long wait = tokens >= needed ? 0 : (long) Math.ceil((needed - tokens) / tokensPerNano);
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return wait;
+    }
+
+    /** Gives back a token taken by {@link #reserve(long, long)} that was not used. */
+    synchronized void cancel() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index used for fuzzy company search when pg_trgm is not available
+ * (the H2 test profile, or a database where the extension cannot be created).
+ *
+ * Trigrams are extracted the way pg_trgm does it: per word, padded with two leading
+ * blanks and one trailing blank. Every distinct name and every word of it is a term;
+ * a company scores the best similarity of any of its terms, which approximates
+ * pg_trgm's word_similarity. Only terms that share a trigram with the query are
+ * scored, so a search never walks the whole directory.
+ */
+class TrigramIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final Map<String, Set<Long>> companiesByTerm = new HashMap<>();
+    private final Map<String, Integer> trigramCountByTerm = new HashMap<>();
+    private final Map<Long, Set<String>> termsByCompany = new HashMap<>();
+
+    /** Replaces the indexed texts (name, offerings ...) of one company; an empty list removes it. */
+    void index(Long companyId, Collection<String> texts) {
+
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            List<String> words = words(text);
+            if (!words.isEmpty()) {
+                terms.add(String.join(" ", words));
+                terms.addAll(words);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            Set<String> previous = termsByCompany.remove(companyId);
+            if (previous != null) {
+                for (String term : previous) {
+                    removeCompany(term, companyId);
+                }
+            }
+            if (!terms.isEmpty()) {
+                termsByCompany.put(companyId, terms);
+                for (String term : terms) {
+                    addCompany(term, companyId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            termsByTrigram.clear();
+            companiesByTerm.clear();
+            trigramCountByTerm.clear();
+            termsByCompany.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns company ids whose best term similarity reaches the threshold, most similar first. */
+    List<Long> search(String query, double threshold, int limit) {
+
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                Set<String> terms = termsByTrigram.get(trigram);
+                if (terms != null) {
+                    for (String term : terms) {
+                        shared.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+
+            Map<Long, Double> scores = new HashMap<>();
+            shared.forEach((term, common) -> {
+                double similarity = (double) common
+                        / (queryTrigrams.size() + trigramCountByTerm.get(term) - common);
+                if (similarity >= threshold) {
+                    for (Long companyId : companiesByTerm.get(term)) {
+                        scores.merge(companyId, similarity, Math::max);
+                    }
+                }
+            });
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addCompany(String term, Long companyId) {
+        Set<Long> companies = companiesByTerm.computeIfAbsent(term, t -> new HashSet<>());
+        if (companies.isEmpty()) {
+            Set<String> termTrigrams = trigrams(term);
+            trigramCountByTerm.put(term, termTrigrams.size());
+            for (String trigram : termTrigrams) {
+                termsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+            }
+        }
+        companies.add(companyId);
+    }
+
+    private void removeCompany(String term, Long companyId) {
+        Set<Long> companies = companiesByTerm.get(term);
+        if (companies == null || !companies.remove(companyId) || !companies.isEmpty()) {
+            return;
+        }
+        companiesByTerm.remove(term);
+        trigramCountByTerm.remove(term);
+        for (String trigram : trigrams(term)) {
+            Set<String> terms = termsByTrigram.get(trigram);
+            terms.remove(term);
+            if (terms.isEmpty()) {
+                termsByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    /** pg_trgm style trigram set of a text. */
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words(text)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,96 @@
+package com.startupocean.Startup.Collaboration.Portal.config;
+
+import com.startupocean.Startup.Collaboration.Portal.service.LogoStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the logo migration on tables shaped like older releases left them. Needs a
+ * scratch PostgreSQL database (the tables are created and dropped), e.g.
+ * {@code mvn test -Dtest=CompanyLogoMigrationTests
+ * -Dmigration.postgres.url=jdbc:postgresql://localhost/bench
+ * -Dmigration.postgres.user=postgres -Dmigration.postgres.password=postgres}.
+ */
+@EnabledIfSystemProperty(named = "migration.postgres.url", matches = ".+")
+class CompanyLogoMigrationTests {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 1, 2, 3};
+
+    @TempDir
+    Path logoDirectory;
+
+    private JdbcTemplate jdbcTemplate;
+    private LogoStore logoStore;
+    private CompanyLogoMigration migration;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getProperty("migration.postgres.url"),
+                System.getProperty("migration.postgres.user", "postgres"),
+                System.getProperty("migration.postgres.password", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        dropTables();
+        logoStore = new LogoStore(logoDirectory.toString());
+        migration = new CompanyLogoMigration(new DatabasePlatform(dataSource), jdbcTemplate, logoStore);
+    }
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS logo_migration_backup, company_logos, companies");
+    }
+
+    @Test
+    void logosInCompaniesMoveToTheStoreWithABackup() throws IOException {
+
+        jdbcTemplate.execute("CREATE TABLE companies (company_id BIGINT PRIMARY KEY, logo BYTEA)");
+        jdbcTemplate.update("INSERT INTO companies VALUES (1, ?), (2, ?), (3, NULL)", PNG, "<svg/>".getBytes());
+
+        migration.migrate();
+        migration.migrate();
+
+        assertFalse(columnExists("companies", "logo"));
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT company_id, hash, size FROM company_logos");
+        assertEquals(1L, row.get("company_id"));
+        assertEquals((long) PNG.length, row.get("size"));
+        assertArrayEquals(PNG, Files.readAllBytes(logoStore.find((String) row.get("hash"))));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM logo_migration_backup WHERE source = 'companies.logo'", Integer.class));
+    }
+
+    @Test
+    void logosInCompanyLogosGetAHashColumn() throws IOException {
+
+        jdbcTemplate.execute("CREATE TABLE companies (company_id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE company_logos (company_id BIGINT PRIMARY KEY, data BYTEA, "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO company_logos (company_id, data) VALUES (1, ?), (2, ?)",
+                PNG, "<svg/>".getBytes());
+
+        migration.migrate();
+
+        assertFalse(columnExists("company_logos", "data"));
+        String hash = jdbcTemplate.queryForObject("SELECT hash FROM company_logos WHERE company_id = 1", String.class);
+        assertArrayEquals(PNG, Files.readAllBytes(logoStore.find(hash)));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM company_logos", Integer.class));
+        assertArrayEquals("<svg/>".getBytes(), jdbcTemplate.queryForObject(
+                "SELECT data FROM logo_migration_backup WHERE company_id = 2", byte[].class));
+    }
+
+    private boolean columnExists(String table, String column) {
+        return jdbcTemplate.queryForObject(CompanyLogoMigration.COLUMN_EXISTS_SQL, Boolean.class, table, column);
+    }
+}
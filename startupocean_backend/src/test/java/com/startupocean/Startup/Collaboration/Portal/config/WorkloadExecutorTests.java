@@ -0,0 +1,150 @@
+package com.startupocean.Startup.Collaboration.Portal.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadExecutorTests {
+
+    @Test
+    void saturatedExecutorsFollowTheirPolicy() throws InterruptedException {
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(3);
+        Runnable blocker = () -> {
+            started.countDown();
+            await(release);
+        };
+
+        // one thread busy and one task queued fills each of them
+        WorkloadExecutor shed = new WorkloadExecutor("shed", 1, 1,
+                WorkloadExecutor.Saturation.SHED, false, meterRegistry);
+        WorkloadExecutor dropOldest = new WorkloadExecutor("drop", 1, 1, WorkloadExecutor.Saturation.DROP_OLDEST,
+                false, meterRegistry);
+        WorkloadExecutor callerRuns = new WorkloadExecutor("caller", 1, 1, WorkloadExecutor.Saturation.CALLER_RUNS,
+                false, meterRegistry);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        for (WorkloadExecutor executor : List.of(shed, dropOldest, callerRuns)) {
+            executor.execute(blocker);
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        shed.execute(() -> ran.add("shed queued"));
+        dropOldest.execute(() -> ran.add("drop oldest"));
+        callerRuns.execute(() -> ran.add("caller queued"));
+
+        assertEquals(1, meterRegistry.get("executor.active").tag("name", "shed").gauge().value());
+        assertEquals(1, meterRegistry.get("executor.queued").tag("name", "shed").gauge().value());
+
+        assertThrows(TaskRejectedException.class, () -> shed.execute(() -> ran.add("shed refused")));
+        dropOldest.execute(() -> ran.add("drop newest"));
+        callerRuns.execute(() -> ran.add("caller ran " + Thread.currentThread().getName()));
+
+        assertEquals(List.of("caller ran " + Thread.currentThread().getName()), ran);
+        assertEquals(1, meterRegistry.get("executor.rejected").tag("name", "shed").counter().count());
+        assertEquals(1, meterRegistry.get("executor.rejected").tag("name", "drop").counter().count());
+
+        release.countDown();
+        for (WorkloadExecutor executor : List.of(shed, dropOldest, callerRuns)) {
+            executor.shutdown();
+        }
+        assertTrue(ran.containsAll(List.of("shed queued", "drop newest", "caller queued")), ran.toString());
+        assertFalse(ran.contains("drop oldest") || ran.contains("shed refused"), ran.toString());
+        assertEquals(2, meterRegistry.get("executor.idle").tag("name", "shed").timer().count());
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void virtualThreadsFallBackToThePoolBeforeJava21() throws InterruptedException {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        WorkloadExecutor executor = new WorkloadExecutor("fallback", 1, 1,
+                WorkloadExecutor.Saturation.SHED, true, new SimpleMeterRegistry());
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        executor.execute(() -> {
+            threads.add(Thread.currentThread().getName());
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> threads.add(Thread.currentThread().getName()));
+
+        // a platform thread pool with a queue, as if virtual threads were off
+        assertEquals(1, executor.getQueued());
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> threads.add("refused")));
+
+        release.countDown();
+        executor.shutdown();
+        assertEquals(List.of("fallback-1", "fallback-1"), threads);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreadsRunEveryTaskOnItsOwnThreadUpToTheLimit() throws Exception {
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(4);
+        Method isVirtual = Thread.class.getMethod("isVirtual");
+        List<Object> virtual = new CopyOnWriteArrayList<>();
+        Runnable blocker = () -> {
+            try {
+                virtual.add(isVirtual.invoke(Thread.currentThread()));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+            started.countDown();
+            await(release);
+        };
+
+        // threads + queue-capacity = 2 tasks run at once, none wait in a queue
+        WorkloadExecutor shed = new WorkloadExecutor("shed", 1, 1,
+                WorkloadExecutor.Saturation.SHED, true, meterRegistry);
+        WorkloadExecutor dropOldest = new WorkloadExecutor("drop", 1, 1,
+                WorkloadExecutor.Saturation.DROP_OLDEST, true, meterRegistry);
+        for (WorkloadExecutor executor : List.of(shed, dropOldest)) {
+            executor.execute(blocker);
+            executor.execute(blocker);
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(2, shed.getActive());
+        assertEquals(0, shed.getQueued());
+
+        List<String> ran = new CopyOnWriteArrayList<>();
+        assertThrows(TaskRejectedException.class, () -> shed.execute(() -> ran.add("shed refused")));
+        // nothing is queued, so the new task is the one dropped
+        dropOldest.execute(() -> ran.add("drop newest"));
+        assertEquals(1, meterRegistry.get("executor.rejected").tag("name", "shed").counter().count());
+        assertEquals(1, meterRegistry.get("executor.rejected").tag("name", "drop").counter().count());
+
+        release.countDown();
+        shed.shutdown();
+        dropOldest.shutdown();
+        assertEquals(List.of(true, true, true, true), virtual);
+        assertTrue(ran.isEmpty(), ran.toString());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
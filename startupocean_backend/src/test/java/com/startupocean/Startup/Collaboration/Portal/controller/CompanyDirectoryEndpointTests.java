@@ -0,0 +1,219 @@
+package com.startupocean.Startup.Collaboration.Portal.controller;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyPageResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.SuggestionResponse;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyCursor;
+import com.startupocean.Startup.Collaboration.Portal.service.CompanySuggestIndex;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyDirectoryEndpointTests {
+
+    @Autowired
+    private CompanyController companyController;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CompanySuggestIndex companySuggestIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void suggestCapsTheLimitAndMatchesWordStarts() {
+
+        for (int i = 0; i < 12; i++) {
+            company("Quokka Works " + i, "suggest-" + i + "@example.com");
+        }
+        companySuggestIndex.load();
+
+        ApiResponse response = companyController.suggest("works", 2).getBody();
+        assertTrue(response.isSuccess());
+        assertEquals(List.of("Quokka Works 0", "Quokka Works 1"), texts(response));
+        // never more than the ten the trie keeps per prefix
+        assertEquals(10, texts(companyController.suggest("quokka", 50).getBody()).size());
+        assertEquals(10, texts(companyController.suggest("quokka", null).getBody()).size());
+        assertTrue(texts(companyController.suggest("okka", null).getBody()).isEmpty());
+    }
+
+    @Test
+    void pagesWalkCompaniesWithEqualCreatedAtByCompanyId() {
+
+        // created after everything else, all at the same instant
+        LocalDateTime sameInstant = LocalDateTime.of(2999, 1, 1, 0, 0);
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(company("Paged " + i, "paged-" + i + "@example.com").getCompanyId());
+        }
+        jdbcTemplate.update("UPDATE companies SET created_at = ? WHERE email LIKE 'paged-%'", sameInstant);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = new CompanyCursor(sameInstant.minusSeconds(1), 0L).encode();
+        int pages = 0;
+        CompanyPageResponse page;
+        do {
+            ResponseEntity<ApiResponse> response = companyController.getCompaniesPage(cursor, 2);
+            assertEquals(200, response.getStatusCode().value());
+            page = (CompanyPageResponse) response.getBody().getData();
+            page.getCompanies().forEach(company -> seen.add(company.getCompanyId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (page.isHasMore());
+
+        assertEquals(3, pages);
+        assertNull(cursor);
+        assertEquals(created, seen);
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+
+        ResponseEntity<ApiResponse> response = companyController.getCompaniesPage("not a cursor", 10);
+
+        assertEquals(400, response.getStatusCode().value());
+        assertFalse(response.getBody().isSuccess());
+    }
+
+    @Test
+    void streamWritesEveryActiveCompanyAsOneJsonArray() throws IOException {
+
+        company("Streamed", "streamed@example.com");
+        Company inactive = company("Not Streamed", "not-streamed@example.com");
+        inactive.setIsActive(false);
+        companyRepository.save(inactive);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        companyController.streamCompanies().getBody().writeTo(out);
+        JsonNode array = objectMapper.readTree(out.toByteArray());
+
+        assertTrue(array.isArray());
+        List<String> emails = new ArrayList<>();
+        array.forEach(company -> emails.add(company.get("email").asString()));
+        assertEquals(companyRepository.findAll().stream().filter(Company::getIsActive).count(), emails.size());
+        assertTrue(emails.contains("streamed@example.com"));
+        assertFalse(emails.contains("not-streamed@example.com"));
+    }
+
+    @Test
+    void streamDetachesEachBatchBeforeReadingTheNext() {
+
+        List<Company> created = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            created.add(company("Batched " + i, "batched-" + i + "@example.com"));
+        }
+
+        // the request's persistence context, as open-in-view keeps it for the whole response
+        List<Integer> attached = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                companyController.streamCompanies().getBody().writeTo(new OutputStream() {
+                    @Override
+                    public void write(int b) {
+                    }
+
+                    @Override
+                    public void flush() {
+                        attached.add((int) entityManager.unwrap(Session.class).getStatistics().getEntityKeys()
+                                .stream()
+                                .filter(key -> ((EntityKey) key).getEntityName().equals(Company.class.getName()))
+                                .count());
+                    }
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        companyRepository.deleteAll(created);
+
+        // the first batch of 200 companies is attached while written, and later batches replace it
+        assertEquals(200, attached.get(0));
+        assertEquals(200, attached.stream().mapToInt(Integer::intValue).max().getAsInt());
+    }
+
+    @Test
+    void fullTextSearchFallsBackToLikeWithoutPostgres() {
+
+        Company byName = company("Zanzibar Robotics", "zanzibar-name@example.com");
+        Company other = company("Unrelated", "zanzibar-other@example.com");
+
+        List<Long> like = ids(companyController.searchCompanies("zanzibar", "like").getBody());
+        List<Long> fts = ids(companyController.searchCompanies("zanzibar", "fts").getBody());
+
+        assertEquals(List.of(byName.getCompanyId()), like);
+        assertEquals(like, fts);
+        assertFalse(fts.contains(other.getCompanyId()));
+        assertEquals(400, companyController.searchCompanies("zanzibar", "regex").getStatusCode().value());
+    }
+
+    @Test
+    void searchModeIsParsedTheSameInEveryLocale() {
+
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            // "like".toUpperCase() is "LİKE" in Turkish
+            assertEquals(200, companyController.searchCompanies("anything", "like").getStatusCode().value());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(ApiResponse response) {
+        return ((List<CompanyResponse>) response.getData()).stream().map(CompanyResponse::getCompanyId).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> texts(ApiResponse response) {
+        return ((List<SuggestionResponse>) response.getData()).stream().map(SuggestionResponse::getText).toList();
+    }
+
+    private Company company(String name, String email) {
+        Company company = new Company();
+        company.setCompanyName(name);
+        company.setEmail(email);
+        company.setIsActive(true);
+        return companyRepository.save(company);
+    }
+}
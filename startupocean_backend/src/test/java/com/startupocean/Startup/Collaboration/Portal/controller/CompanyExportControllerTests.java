@@ -0,0 +1,92 @@
+package com.startupocean.Startup.Collaboration.Portal.controller;
+
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyExportService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyExportControllerTests {
+
+    @Autowired
+    private CompanyExportController companyExportController;
+
+    @Autowired
+    private CompanyExportService companyExportService;
+
+    @Test
+    void slotIsGivenBackOnceWhenTheExportFinishes() throws Exception {
+
+        MockHttpServletRequest request = startExport(new TaskExecutorAdapter(new SyncTaskExecutor()));
+        request.getAsyncContext().complete();
+
+        assertAllSlotsFree();
+    }
+
+    @Test
+    void slotIsGivenBackWhenTheRequestTimesOutBeforeTheExportStarts() throws Exception {
+
+        // the export task is queued but never runs
+        TaskExecutor neverRuns = task -> {
+        };
+        MockHttpServletRequest request = startExport(new TaskExecutorAdapter(neverRuns));
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        asyncContext.complete();
+
+        assertAllSlotsFree();
+    }
+
+    /** Hands the response body to the async manager, as MVC does for a StreamingResponseBody. */
+    private MockHttpServletRequest startExport(AsyncTaskExecutor executor) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/companies/export");
+        request.setAsyncSupported(true);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setTaskExecutor(executor);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+
+        ResponseEntity<StreamingResponseBody> response =
+                companyExportController.exportCompanies(request, "ndjson", false);
+        assertEquals(200, response.getStatusCode().value());
+
+        StreamingResponseBody body = response.getBody();
+        asyncManager.startCallableProcessing(() -> {
+            body.writeTo(OutputStream.nullOutputStream());
+            return null;
+        });
+        return request;
+    }
+
+    private void assertAllSlotsFree() {
+        assertTrue(companyExportService.tryAcquire());
+        assertTrue(companyExportService.tryAcquire());
+        assertFalse(companyExportService.tryAcquire());
+        companyExportService.release();
+        companyExportService.release();
+    }
+}
@@ -0,0 +1,112 @@
+package com.startupocean.Startup.Collaboration.Portal.controller;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.repository.CityRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.service.CityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConditionalGetTests {
+
+    @Autowired
+    private CityController cityController;
+
+    @Autowired
+    private CompanyController companyController;
+
+    @Autowired
+    private CityService cityService;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void collectionIsNotModifiedUntilARowChanges() {
+
+        cityService.addCity("Nashik");
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertNotNull(cityController.getAllCities(webRequest(null, first)));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse unchanged = new MockHttpServletResponse();
+        assertNull(cityController.getAllCities(webRequest(etag, unchanged)));
+        assertEquals(304, unchanged.getStatus());
+
+        cityService.addCity("Kolhapur");
+
+        MockHttpServletResponse changed = new MockHttpServletResponse();
+        assertNotNull(cityController.getAllCities(webRequest(etag, changed)));
+        assertEquals(200, changed.getStatus());
+
+        cityRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void singleCompanyIsValidatedByUpdatedAt() {
+
+        Company company = new Company();
+        company.setCompanyName("Validator Labs");
+        company.setEmail("validator@example.com");
+        company.setIsActive(true);
+        Long companyId = companyRepository.save(company).getCompanyId();
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        companyController.getCompanyById(companyId, webRequest(null, first));
+
+        MockHttpServletResponse unchanged = new MockHttpServletResponse();
+        assertNull(companyController.getCompanyById(companyId,
+                webRequest(first.getHeader(HttpHeaders.ETAG), unchanged)));
+        assertEquals(304, unchanged.getStatus());
+    }
+
+    @Test
+    void directoryIsGzippedOnlyWhenGzipHasANonZeroQuality() throws IOException {
+
+        assertEquals("gzip", directoryEncoding("deflate, gzip"));
+        assertEquals("gzip", directoryEncoding("GZIP;q=0.5, identity"));
+        assertEquals("gzip", directoryEncoding("br;q=1.0, *;q=0.1"));
+        assertNull(directoryEncoding("gzip;q=0"));
+        assertNull(directoryEncoding("gzip; q=0.000, *"));
+        assertNull(directoryEncoding("*;q=0"));
+        assertNull(directoryEncoding("identity"));
+        assertNull(directoryEncoding(null));
+    }
+
+    private String directoryEncoding(String acceptEncoding) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        companyController.getAllCompanies(request, response);
+        assertEquals(200, response.getStatus());
+        return response.getHeader(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,241 @@
+package com.startupocean.Startup.Collaboration.Portal.controller;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyLogoService;
+import com.startupocean.Startup.Collaboration.Portal.service.CompanyResponseAssembler;
+import com.startupocean.Startup.Collaboration.Portal.service.LogoStore;
+import com.startupocean.Startup.Collaboration.Portal.service.LogoVariantService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LogoServingTests {
+
+    @Autowired
+    private FileUploadController fileUploadController;
+
+    @Autowired
+    private CompanyResponseAssembler companyResponseAssembler;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private LogoStore logoStore;
+
+    @Autowired
+    private CompanyLogoService companyLogoService;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void identicalUploadsShareOneImmutableRangeableFile() throws IOException {
+
+        byte[] png = png(4096);
+        Company first = company("logo-a@example.com");
+        Company second = company("logo-b@example.com");
+
+        signIn(first);
+        assertEquals(200, fileUploadController.uploadLogo(first.getCompanyId(), file(png)).getStatusCode().value());
+        signIn(second);
+        assertEquals(200, fileUploadController.uploadLogo(second.getCompanyId(), file(png)).getStatusCode().value());
+
+        String firstUrl = companyResponseAssembler.toResponse(first).getLogoUrl();
+        CompanyResponse secondResponse = companyResponseAssembler.toResponse(second);
+        assertEquals(firstUrl, secondResponse.getLogoUrl());
+
+        String hash = firstUrl.substring(firstUrl.lastIndexOf('/') + 1);
+        Path stored = logoStore.find(hash);
+        assertNotNull(stored);
+        assertArrayEquals(png, Files.readAllBytes(stored));
+
+        MockHttpServletResponse full = serve(hash, null, null);
+        assertEquals(200, full.getStatus());
+        assertEquals("image/png", full.getContentType());
+        assertTrue(full.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        assertArrayEquals(png, full.getContentAsByteArray());
+
+        MockHttpServletResponse partial = serve(hash, "bytes=100-199", null);
+        assertEquals(206, partial.getStatus());
+        assertEquals("bytes 100-199/4096", partial.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(png, 100, 200), partial.getContentAsByteArray());
+
+        assertEquals(416, serve(hash, "bytes=5000-", null).getStatus());
+        assertEquals(304, serve(hash, null, full.getHeader(HttpHeaders.ETAG)).getStatus());
+        assertEquals(404, serve("0".repeat(64), null, null).getStatus());
+
+        // not a decodable image, so no variant will ever exist and the original is served instead
+        MockHttpServletResponse unresized = serve(hash, 64, null, null);
+        assertEquals(307, unresized.getStatus());
+        assertEquals(firstUrl, unresized.getHeader(HttpHeaders.LOCATION));
+        assertEquals(400, serve(hash, 100, null, null).getStatus());
+
+        MockHttpServletRequest legacy = new MockHttpServletRequest("GET", "/api/upload/logo/" + first.getCompanyId());
+        legacy.setContextPath("/api");
+        assertEquals("/api" + firstUrl,
+                fileUploadController.getLogo(first.getCompanyId(), null, legacy).getHeaders().getLocation().toString());
+    }
+
+    @Test
+    void uploadsAreResizedInTheBackground() throws Exception {
+
+        Company company = company("logo-d@example.com");
+        BufferedImage wide = new BufferedImage(1200, 600, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = wide.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillOval(0, 0, 1200, 600);
+        g.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(wide, "png", png);
+
+        signIn(company);
+        fileUploadController.uploadLogo(company.getCompanyId(), file(png.toByteArray()));
+        String url = companyResponseAssembler.toResponse(company).getLogoUrl();
+        String hash = url.substring(url.lastIndexOf('/') + 1);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (logoStore.findVariant(hash, 64) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        for (int size : LogoVariantService.SIZES) {
+            MockHttpServletResponse variant = serve(hash, size, null, null);
+            assertEquals(200, variant.getStatus());
+            assertEquals("image/png", variant.getContentType());
+            assertTrue(variant.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(variant.getContentAsByteArray()));
+            assertEquals(size, decoded.getWidth());
+            assertEquals(size / 2, decoded.getHeight());
+        }
+    }
+
+    @Test
+    void rejectsBytesThatAreNotAnImage() {
+
+        Company company = company("logo-c@example.com");
+        MockMultipartFile text = new MockMultipartFile("file", "logo.png", "image/png", "<svg/>".getBytes());
+
+        signIn(company);
+        assertEquals(400, fileUploadController.uploadLogo(company.getCompanyId(), text).getStatusCode().value());
+        assertNull(companyResponseAssembler.toResponse(company).getLogoUrl());
+    }
+
+    @Test
+    void onlyTheOwnerUploadsAndReplacedLogosAreSwept() throws IOException {
+
+        Company owner = company("logo-e@example.com");
+        Company other = company("logo-f@example.com");
+        Company sharing = company("logo-g@example.com");
+
+        assertEquals(403, fileUploadController.uploadLogo(owner.getCompanyId(), file(png(100))).getStatusCode().value());
+        signIn(other);
+        assertEquals(403, fileUploadController.uploadLogo(owner.getCompanyId(), file(png(100))).getStatusCode().value());
+        assertNull(companyResponseAssembler.toResponse(owner).getLogoUrl());
+
+        signIn(owner);
+        fileUploadController.uploadLogo(owner.getCompanyId(), file(png(200)));
+        String replaced = hashOf(owner);
+        logoStore.storeVariant(replaced, 64, new byte[]{1});
+        signIn(sharing);
+        fileUploadController.uploadLogo(sharing.getCompanyId(), file(png(300)));
+        String shared = hashOf(sharing);
+
+        signIn(owner);
+        fileUploadController.uploadLogo(owner.getCompanyId(), file(png(300)));
+        assertEquals(shared, hashOf(owner));
+
+        // still inside the grace period
+        companyLogoService.sweepUnreferencedLogos(Instant.now().minusSeconds(3600));
+        assertNotNull(logoStore.find(replaced));
+
+        companyLogoService.sweepUnreferencedLogos(Instant.now().plusSeconds(1));
+        assertNull(logoStore.find(replaced));
+        assertNull(logoStore.findVariant(replaced, 64));
+        assertNotNull(logoStore.find(shared));
+    }
+
+    private String hashOf(Company company) {
+        String url = companyResponseAssembler.toResponse(company).getLogoUrl();
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+
+    private static void signIn(Company company) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(company.getEmail(), null, List.of()));
+    }
+
+    private MockHttpServletResponse serve(String hash, String range, String ifNoneMatch) throws IOException {
+        return serve(hash, null, range, ifNoneMatch);
+    }
+
+    private MockHttpServletResponse serve(String hash, Integer size, String range, String ifNoneMatch)
+            throws IOException {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/upload/logos/" + hash);
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileUploadController.serveLogo(hash, size, request, response);
+        return response;
+    }
+
+    private Company company(String email) {
+        Company company = new Company();
+        company.setCompanyName("Logo " + email);
+        company.setEmail(email);
+        company.setIsActive(true);
+        return companyRepository.save(company);
+    }
+
+    private static MockMultipartFile file(byte[] bytes) {
+        return new MockMultipartFile("file", "logo.png", "image/png", bytes);
+    }
+
+    private static byte[] png(int size) {
+        byte[] bytes = new byte[size];
+        new Random(7).nextBytes(bytes);
+        byte[] magic = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        System.arraycopy(magic, 0, bytes, 0, magic.length);
+        return bytes;
+    }
+}
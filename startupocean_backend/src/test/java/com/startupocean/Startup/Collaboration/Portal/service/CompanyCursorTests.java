@@ -0,0 +1,45 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompanyCursorTests {
+
+    @Test
+    void tokensRoundTripAndAreUrlSafe() {
+
+        CompanyCursor cursor = new CompanyCursor(LocalDateTime.of(2024, 3, 9, 17, 45, 1, 123_456_000), 98_765L);
+        String token = cursor.encode();
+
+        assertFalse(token.contains("=") || token.contains("+") || token.contains("/"));
+        CompanyCursor decoded = CompanyCursor.decode(token);
+        assertEquals(cursor.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(cursor.getCompanyId(), decoded.getCompanyId());
+    }
+
+    @Test
+    void missingTokensStartAtTheBeginning() {
+        assertSame(CompanyCursor.START, CompanyCursor.decode(null));
+        assertSame(CompanyCursor.START, CompanyCursor.decode(" "));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CompanyCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> CompanyCursor.decode(encode("no separator")));
+        assertThrows(IllegalArgumentException.class, () -> CompanyCursor.decode(encode("yesterday|12")));
+        assertThrows(IllegalArgumentException.class, () -> CompanyCursor.decode(encode("2024-03-09T17:45|abc")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
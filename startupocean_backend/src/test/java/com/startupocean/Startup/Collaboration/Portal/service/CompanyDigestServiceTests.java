@@ -0,0 +1,98 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.ServiceRequest;
+import com.startupocean.Startup.Collaboration.Portal.entity.EmailOutbox;
+import com.startupocean.Startup.Collaboration.Portal.entity.NotificationPreference;
+import com.startupocean.Startup.Collaboration.Portal.entity.NotificationPreference.DigestFrequency;
+import com.startupocean.Startup.Collaboration.Portal.repository.EmailOutboxRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.NotificationPreferenceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyDigestServiceTests {
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private CompanyDigestService companyDigestService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Test
+    void eachCompanyGetsOneDigestOfOppositeSignupsPerPeriod() {
+
+        LocalDateTime start = LocalDateTime.now();
+        create("digest-daily@example.com", "Daily Provider", "SERVICE_PROVIDER");
+        Long weekly = create("digest-weekly@example.com", "Weekly Provider", "SERVICE_PROVIDER");
+        Long never = create("digest-never@example.com", "Never Provider", "SERVICE_PROVIDER");
+        companyDigestService.setFrequency(weekly, DigestFrequency.WEEKLY);
+        companyDigestService.setFrequency(never, DigestFrequency.NEVER);
+
+        // as if the weekly company had its last digest a day ago
+        NotificationPreference weeklyPreference = preferenceRepository.findById(weekly).orElseThrow();
+        weeklyPreference.setLastDigestAt(start.minusDays(1));
+        preferenceRepository.save(weeklyPreference);
+
+        create("digest-s1@example.com", "Startup One", "STARTUP");
+        create("digest-s2@example.com", "Startup <Two>", "STARTUP");
+        emailOutboxRepository.deleteAll();
+
+        companyDigestService.sendDigests(start.plusDays(2));
+
+        List<EmailOutbox> daily = queuedFor("digest-daily@example.com");
+        assertEquals(1, daily.size());
+        assertEquals("New on StartupOcean: 2 companies joined", daily.get(0).getSubject());
+        assertTrue(daily.get(0).getBody().contains("Startup One"));
+        assertTrue(daily.get(0).getBody().contains("Startup &lt;Two&gt;"));
+
+        // weekly is not due yet, never is never due, and the startups joined after every provider
+        assertEquals(0, queuedFor("digest-weekly@example.com").size());
+        assertEquals(0, queuedFor("digest-never@example.com").size());
+        assertEquals(0, queuedFor("digest-s1@example.com").size());
+
+        // the same run again finds nothing new
+        companyDigestService.sendDigests(start.plusDays(2));
+        assertEquals(1, queuedFor("digest-daily@example.com").size());
+
+        companyDigestService.sendDigests(start.plusDays(7));
+        assertEquals(1, queuedFor("digest-daily@example.com").size());
+        assertEquals(1, queuedFor("digest-weekly@example.com").size());
+        assertEquals(0, queuedFor("digest-never@example.com").size());
+    }
+
+    private List<EmailOutbox> queuedFor(String email) {
+        return emailOutboxRepository.findAll().stream()
+                .filter(queued -> queued.getRecipient().equals(email))
+                .toList();
+    }
+
+    private Long create(String email, String name, String type) {
+        ServiceRequest service = new ServiceRequest();
+        service.setType(type);
+        service.setDescription("Digest");
+
+        CompanyRequest request = new CompanyRequest();
+        request.setEmail(email);
+        request.setCompanyName(name);
+        request.setCity("Pune");
+        request.setServices(List.of(service));
+        return ((CompanyResponse) companyService.createCompany(request).getData()).getCompanyId();
+    }
+}
@@ -0,0 +1,99 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyDirectorySnapshotTests {
+
+    @Autowired
+    private CompanyDirectorySnapshot directorySnapshot;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void rebuildPublishesNewVersionWithMatchingGzip() throws IOException {
+
+        CompanyDirectorySnapshot.Snapshot before = directorySnapshot.current();
+
+        Company company = new Company();
+        company.setCompanyName("Snapshot Labs");
+        company.setEmail("snapshot@example.com");
+        company.setCity("Pune");
+        company.setIsActive(true);
+        companyRepository.save(company);
+        directorySnapshot.rebuild();
+
+        CompanyDirectorySnapshot.Snapshot after = directorySnapshot.current();
+        byte[] identity = bytes(after.getIdentity());
+
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertTrue(new String(identity, StandardCharsets.UTF_8).contains("\"companyName\":\"Snapshot Labs\""));
+        assertArrayEquals(identity, new GZIPInputStream(new ByteArrayInputStream(bytes(after.getGzip()))).readAllBytes());
+    }
+
+    @Test
+    void restartWarmStartsFromTheMappedFile() {
+
+        CompanyDirectorySnapshot.Snapshot built = directorySnapshot.current();
+
+        CompanyDirectorySnapshot restarted =
+                new CompanyDirectorySnapshot(null, null, null, null, "target/snapshots");
+        restarted.loadFromDisk();
+
+        assertEquals(built.getEtag(), restarted.current().getEtag());
+        assertArrayEquals(bytes(built.getIdentity()), bytes(restarted.current().getIdentity()));
+    }
+
+    @Test
+    void unwritableDirectoryIsServedFromTheHeap() throws IOException {
+
+        // a regular file where the snapshot directory should be
+        Path notADirectory = Files.createTempFile("snapshots", ".file");
+        try {
+            CompanyDirectorySnapshot unwritable = new CompanyDirectorySnapshot(
+                    companyService, objectMapper, null, null, notADirectory.toString());
+
+            CompanyDirectorySnapshot.Snapshot snapshot = unwritable.current();
+
+            assertNotNull(snapshot);
+            assertEquals(directorySnapshot.current().getEtag(), snapshot.getEtag());
+            assertArrayEquals(bytes(directorySnapshot.current().getIdentity()), bytes(snapshot.getIdentity()));
+        } finally {
+            Files.delete(notADirectory);
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,97 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyExportServiceTests {
+
+    private static final String CSV = """
+            email,companyName,city,serviceType,serviceDescription,phoneNumber,isPhoneVisible,offerings,website,linkedin,facebook,instagram,twitter
+            export-a@example.com,"Export, A",Pune,STARTUP,"Apps ""and"" more",,true,Mobile|Web,https://a.example.com,,,,
+            export-a@example.com,"Export, A",Pune,SERVICE_PROVIDER,Audits,12345,false,Audit,https://a.example.com,,,,
+            export-b@example.com,Export B,Mumbai,,,,,,,,,,
+            """;
+
+    @Autowired
+    private CompanyImportService companyImportService;
+
+    @Autowired
+    private CompanyExportService companyExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void csvExportCanBeReimportedUnchanged() throws IOException {
+
+        importCsv();
+
+        List<String> exported = export(CompanyExportService.Format.CSV).lines()
+                .filter(line -> line.startsWith("email,") || line.startsWith("export-"))
+                .toList();
+
+        assertEquals(CSV.lines().toList(), exported);
+    }
+
+    @Test
+    void ndjsonExportWritesOneCompanyPerLine() throws IOException {
+
+        importCsv();
+
+        List<JsonNode> companies = export(CompanyExportService.Format.NDJSON).lines()
+                .map(objectMapper::readTree)
+                .filter(node -> node.get("email").asString().startsWith("export-"))
+                .toList();
+
+        assertEquals(2, companies.size());
+        JsonNode a = companies.get(0);
+        assertEquals("Export, A", a.get("companyName").asString());
+        assertEquals(2, a.get("services").size());
+        assertEquals(List.of("Mobile", "Web"),
+                objectMapper.convertValue(a.get("services").get(0).get("offerings"), List.class));
+        assertEquals("https://a.example.com", a.get("socialLinks").get("website").asString());
+        assertTrue(companies.get(1).get("services").isEmpty());
+    }
+
+    @Test
+    void onlyMaxConcurrentExportsRunAtOnce() {
+
+        assertTrue(companyExportService.tryAcquire());
+        assertTrue(companyExportService.tryAcquire());
+        try {
+            assertFalse(companyExportService.tryAcquire());
+        } finally {
+            companyExportService.release();
+        }
+        assertTrue(companyExportService.tryAcquire());
+        companyExportService.release();
+        companyExportService.release();
+    }
+
+    private void importCsv() throws IOException {
+        companyImportService.importCompanies(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), CompanyImportService.Format.CSV);
+    }
+
+    private String export(CompanyExportService.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        companyExportService.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The tsvector search against a real PostgreSQL database; on H2 the FTS mode falls
+ * back to LIKE. Needs a scratch database (the schema is created and dropped), e.g.
+ * {@code mvn test -Dtest=CompanyFullTextSearchTests
+ * -Dsearch.postgres.url=jdbc:postgresql://localhost/bench
+ * -Dsearch.postgres.user=postgres -Dsearch.postgres.password=postgres}.
+ */
+@EnabledIfSystemProperty(named = "search.postgres.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${search.postgres.url}",
+        "spring.datasource.username=${search.postgres.user:postgres}",
+        "spring.datasource.password=${search.postgres.password:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+class CompanyFullTextSearchTests {
+
+    private static final String CSV = """
+            email,companyName,city,serviceType,serviceDescription,phoneNumber,isPhoneVisible,offerings,website,linkedin,facebook,instagram,twitter
+            fts-name@example.com,Acme Payments,Pune,STARTUP,Card processing,,true,Billing,,,,,
+            fts-offering@example.com,Ledger Works,Mumbai,STARTUP,Bookkeeping,,true,Payment Reconciliation,,,,,
+            fts-description@example.com,Northwind,Delhi,SERVICE_PROVIDER,We build payment apps,,true,Mobile,,,,,
+            fts-none@example.com,Southwind,Delhi,SERVICE_PROVIDER,Logistics,,true,Freight,,,,,
+            """;
+
+    @Autowired
+    private CompanyImportService companyImportService;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private CompanyFullTextSearchService fullTextSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ranksStemmedMatchesByWhereTheyOccur() throws IOException {
+
+        assertTrue(fullTextSearchService.isAvailable());
+        companyImportService.importCompanies(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), CompanyImportService.Format.CSV);
+
+        // name (weight A) before offering (B) before description (C); "payments" stems to "payment"
+        assertEquals(List.of("fts-name@example.com", "fts-offering@example.com", "fts-description@example.com"),
+                emails(companyService.searchCompanies("payments", CompanyService.SearchMode.FTS).getData()));
+        assertTrue(emails(companyService.searchCompanies("freight -logistics", CompanyService.SearchMode.FTS)
+                .getData()).isEmpty());
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE indexname = 'idx_company_search_documents_document' "
+                        + "AND indexdef LIKE '%USING gin%'", Integer.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> emails(Object data) {
+        return ((List<CompanyResponse>) data).stream().map(CompanyResponse::getEmail).toList();
+    }
+}
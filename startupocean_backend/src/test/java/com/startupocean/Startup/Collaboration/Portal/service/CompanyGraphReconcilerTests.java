@@ -0,0 +1,138 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.ServiceRequest;
+import com.startupocean.Startup.Collaboration.Portal.entity.Offering;
+import com.startupocean.Startup.Collaboration.Portal.entity.ServiceEntity;
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.ServiceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyGraphReconcilerTests {
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private OfferingRepository offeringRepository;
+
+    @Autowired
+    private RecordedEvents recordedEvents;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void renameOnlyKeepsServicesAndOfferings() {
+
+        Long companyId = create("rename@example.com", List.of("Payroll", "Invoicing"));
+        List<Long> offeringIds = activeOfferingIds();
+
+        CompanyChanges changes = update(companyId, "rename@example.com", "Renamed Co", List.of("Payroll", "Invoicing"));
+
+        assertTrue(changes.isProfileChanged());
+        assertFalse(changes.servicesChanged());
+        assertFalse(changes.offeringsChanged());
+        assertEquals(offeringIds, activeOfferingIds());
+    }
+
+    @Test
+    void offeringDiffInsertsAndSoftDeletesOnlyWhatChanged() {
+
+        Long companyId = create("diff@example.com", List.of("Payroll", "Invoicing"));
+        List<ServiceEntity> servicesBefore = serviceRepository.findAll();
+
+        CompanyChanges changes = update(companyId, "diff@example.com", "Diff Co", List.of("Payroll", "Audit"));
+
+        assertFalse(changes.isProfileChanged());
+        assertEquals(1, changes.getOfferingsInserted());
+        assertEquals(1, changes.getOfferingsDeleted());
+        assertEquals(0, changes.getServicesInserted() + changes.getServicesDeleted());
+        assertEquals(servicesBefore.size(), serviceRepository.findAll().size());
+
+        CompanyResponse response = (CompanyResponse) companyService.getCompanyById(companyId).getData();
+        assertEquals(List.of("Payroll", "Audit"), response.getServices().get(0).getOfferings());
+        assertTrue(offeringRepository.findAll().stream()
+                .anyMatch(o -> o.getOfferingName().equals("Invoicing") && !o.getIsActive()));
+    }
+
+    @Test
+    void unchangedRequestPublishesNothing() {
+
+        Long companyId = create("same@example.com", List.of("Payroll"));
+        recordedEvents.events.clear();
+
+        update(companyId, "same@example.com", "Diff Co", List.of("Payroll"));
+
+        assertTrue(recordedEvents.events.isEmpty());
+    }
+
+    private Long create(String email, List<String> offerings) {
+        CompanyRequest request = request(email, "Diff Co", offerings);
+        return ((CompanyResponse) companyService.createCompany(request).getData()).getCompanyId();
+    }
+
+    private CompanyChanges update(Long companyId, String email, String name, List<String> offerings) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+        recordedEvents.events.clear();
+        assertTrue(companyService.updateCompany(companyId, request(email, name, offerings)).isSuccess());
+        return recordedEvents.events.isEmpty() ? new CompanyChanges() : recordedEvents.events.get(0).getChanges();
+    }
+
+    private List<Long> activeOfferingIds() {
+        return offeringRepository.findAll().stream()
+                .filter(Offering::getIsActive)
+                .map(Offering::getOfferingId)
+                .sorted()
+                .toList();
+    }
+
+    private static CompanyRequest request(String email, String name, List<String> offerings) {
+        ServiceRequest service = new ServiceRequest();
+        service.setType("STARTUP");
+        service.setDescription("Back office");
+        service.setOfferings(offerings);
+
+        CompanyRequest request = new CompanyRequest();
+        request.setEmail(email);
+        request.setCompanyName(name);
+        request.setCity("Pune");
+        request.setServices(List.of(service));
+        return request;
+    }
+
+    @TestConfiguration
+    static class RecordedEvents {
+
+        private final List<CompanyChangedEvent> events = new ArrayList<>();
+
+        @EventListener
+        void onCompanyChanged(CompanyChangedEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyImportError;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyImportResult;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.entity.CompanySignupEvent;
+import com.startupocean.Startup.Collaboration.Portal.entity.ServiceEntity;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanySignupEventRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.ServiceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyImportServiceTests {
+
+    @Autowired
+    private CompanyImportService companyImportService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private OfferingRepository offeringRepository;
+
+    @Autowired
+    private CompanySignupEventRepository signupEventRepository;
+
+    @Test
+    void csvGroupsServicesByEmailAndReportsBadRows() throws IOException {
+
+        String csv = """
+                email,companyName,city,serviceType,serviceDescription,offerings,website
+                csv-a@example.com,"Acme, Inc",Pune,STARTUP,"Payroll
+                for startups",Payroll|Invoicing,https://acme.example.com
+                csv-a@example.com,"Acme, Inc",Pune,SERVICE_PROVIDER,Audits,Audit,
+                csv-b@example.com,Bad Type Co,Pune,UNICORN,Anything,,
+                not-an-email,No Email Co,Pune,STARTUP,Anything,,
+                csv-c@example.com,Plain Co,Mumbai,,,,
+                csv-a@example.com,Acme Again,Pune,,,,
+                """;
+
+        CompanyImportResult result = importCompanies(csv, CompanyImportService.Format.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(5L, 6L, 8L), result.getErrors().stream().map(CompanyImportError::getLine).toList());
+        assertTrue(result.getErrors().get(0).getMessage().contains("UNICORN"));
+
+        Company acme = companyRepository.findByEmailAndIsActiveTrue("csv-a@example.com").orElseThrow();
+        assertEquals("Acme, Inc", acme.getCompanyName());
+        List<ServiceEntity> services = serviceRepository.findByCompanyAndIsActiveTrueOrderByServiceIdAsc(acme);
+        assertEquals(2, services.size());
+        assertEquals("Payroll\nfor startups", services.get(0).getDescription());
+        assertEquals(List.of("Audit", "Invoicing", "Payroll"),
+                offeringRepository.findActiveOfferingNames(acme.getCompanyId()).stream().sorted().toList());
+
+        // in the next digests, once per type; a company without services has no type to announce
+        Company plain = companyRepository.findByEmailAndIsActiveTrue("csv-c@example.com").orElseThrow();
+        assertEquals(List.of(Company.CompanyType.STARTUP, Company.CompanyType.SERVICE_PROVIDER),
+                signupTypes(acme));
+        assertTrue(signupTypes(plain).isEmpty());
+    }
+
+    @Test
+    void ndjsonRejectsMalformedLinesAndAlreadyRegisteredEmails() throws IOException {
+
+        String first = """
+                {"email":"nd-a@example.com","companyName":"Nd A","city":"Pune","services":[{"type":"STARTUP","description":"Apps","offerings":["Mobile"]}]}
+                """;
+        assertEquals(1, importCompanies(first, CompanyImportService.Format.NDJSON).getImported());
+
+        String second = """
+                {"email":"nd-b@example.com","companyName":"Nd B","city":"Pune"}
+                {"email":"nd-c@example.com",
+                {"email":"nd-a@example.com","companyName":"Nd A again","city":"Pune"}
+
+                {"email":"nd-d@example.com","companyName":"","city":"Pune"}
+                """;
+        CompanyImportResult result = importCompanies(second, CompanyImportService.Format.NDJSON);
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(2L, 3L, 5L), result.getErrors().stream().map(CompanyImportError::getLine).toList());
+        assertEquals("Company already registered with this email", result.getErrors().get(1).getMessage());
+        assertTrue(companyRepository.findByEmailAndIsActiveTrue("nd-b@example.com").isPresent());
+    }
+
+    private CompanyImportResult importCompanies(String body, CompanyImportService.Format format) throws IOException {
+        return companyImportService.importCompanies(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    private List<Company.CompanyType> signupTypes(Company company) {
+        return signupEventRepository.findAll().stream()
+                .filter(event -> event.getCompanyId().equals(company.getCompanyId()))
+                .map(CompanySignupEvent::getCompanyType)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,166 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.ApiResponse;
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyRequest;
+import com.startupocean.Startup.Collaboration.Portal.dto.ServiceRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the database round trips of {@link CompanyService#createCompany} for a company
+ * with 5 services of 20 offerings each. Every statement execution, batch execution and
+ * commit counts as one. Needs a scratch PostgreSQL database (the schema is created and
+ * dropped by Hibernate), e.g.
+ * {@code mvn test -Dtest=CompanyRegistrationBenchmark
+ * -Dbenchmark.postgres.url=jdbc:postgresql://localhost/bench?reWriteBatchedInserts=true
+ * -Dbenchmark.postgres.user=postgres -Dbenchmark.postgres.password=postgres}.
+ *
+ * With identity ids every row was its own INSERT and a registration took 124 round trips;
+ * with pooled sequences and batched inserts it takes 17.
+ */
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${benchmark.postgres.url}",
+        "spring.datasource.username=${benchmark.postgres.user:postgres}",
+        "spring.datasource.password=${benchmark.postgres.password:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@ActiveProfiles("test")
+class CompanyRegistrationBenchmark {
+
+    private static final int SERVICES = 5;
+    private static final int OFFERINGS_PER_SERVICE = 20;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    private static final AtomicInteger roundTrips = new AtomicInteger();
+
+    private final long run = System.currentTimeMillis();
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Test
+    void createCompanyRoundTrips() {
+
+        for (int i = 0; i < WARMUP; i++) {
+            register("warmup-" + i);
+        }
+
+        int total = 0;
+        long elapsed = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            roundTrips.set(0);
+            long start = System.nanoTime();
+            register("measured-" + i);
+            elapsed += System.nanoTime() - start;
+            total += roundTrips.get();
+        }
+
+        int perRegistration = total / ITERATIONS;
+        System.out.printf("createCompany (%d services x %d offerings): %d round trips, %.2f ms%n",
+                SERVICES, OFFERINGS_PER_SERVICE, perRegistration, elapsed / 1e6 / ITERATIONS);
+
+        assertTrue(perRegistration < SERVICES * OFFERINGS_PER_SERVICE,
+                "inserts should be batched, got " + perRegistration + " round trips");
+    }
+
+    private void register(String name) {
+
+        List<ServiceRequest> services = new ArrayList<>();
+        for (int s = 0; s < SERVICES; s++) {
+            List<String> offerings = new ArrayList<>();
+            for (int o = 0; o < OFFERINGS_PER_SERVICE; o++) {
+                offerings.add("Offering " + s + "-" + o);
+            }
+            ServiceRequest service = new ServiceRequest();
+            service.setType("STARTUP");
+            service.setDescription("Service " + s);
+            service.setOfferings(offerings);
+            services.add(service);
+        }
+
+        CompanyRequest request = new CompanyRequest();
+        request.setEmail(name + "-" + run + "@benchmark.example.com");
+        request.setCompanyName("Benchmark " + name);
+        request.setCity("Pune");
+        request.setServices(services);
+
+        ApiResponse response = companyService.createCompany(request);
+        assertTrue(response.isSuccess(), response.getMessage());
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource
+                            ? counting(dataSource, DataSource.class)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    /** Wraps JDBC objects so statement executions and commits are counted. */
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(T target, Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+
+            String name = method.getName();
+            if (name.startsWith("execute") || name.equals("commit")) {
+                roundTrips.incrementAndGet();
+            }
+
+            Object result = invoke(method, target, args);
+
+            if (result instanceof Connection connection && name.equals("getConnection")) {
+                return counting(connection, Connection.class);
+            }
+            if (result instanceof CallableStatement statement) {
+                return counting(statement, CallableStatement.class);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return counting(statement, PreparedStatement.class);
+            }
+            if (result instanceof Statement statement && name.equals("createStatement")) {
+                return counting(statement, Statement.class);
+            }
+            return result;
+        });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.entity.Offering;
+import com.startupocean.Startup.Collaboration.Portal.entity.ServiceEntity;
+import com.startupocean.Startup.Collaboration.Portal.entity.SocialLink;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.OfferingRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.ServiceRepository;
+import com.startupocean.Startup.Collaboration.Portal.repository.SocialLinkRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyResponseAssemblerTests {
+
+    @Autowired
+    private CompanyResponseAssembler assembler;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private OfferingRepository offeringRepository;
+
+    @Autowired
+    private SocialLinkRepository socialLinkRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int seq;
+
+    @BeforeEach
+    void cleanUp() {
+        offeringRepository.deleteAllInBatch();
+        serviceRepository.deleteAllInBatch();
+        socialLinkRepository.deleteAllInBatch();
+        companyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithDirectorySize() {
+
+        seedCompanies(5);
+        long smallDirectory = countStatements(companyRepository.findByIsActiveTrue());
+
+        seedCompanies(45);
+        long largeDirectory = countStatements(companyRepository.findByIsActiveTrue());
+
+        assertEquals(4, smallDirectory);
+        assertEquals(smallDirectory, largeDirectory);
+    }
+
+    @Test
+    void assemblesServicesOfferingsAndSocialLinks() {
+
+        seedCompanies(2);
+
+        List<CompanyResponse> responses =
+                assembler.toResponses(companyRepository.findByIsActiveTrue());
+
+        assertEquals(2, responses.size());
+        for (CompanyResponse response : responses) {
+            assertEquals(2, response.getServices().size());
+            assertEquals(List.of("Offering 0", "Offering 1", "Offering 2"),
+                    response.getServices().get(0).getOfferings());
+            assertEquals("https://example.com/" + response.getCompanyName(),
+                    response.getSocialLinks().getWebsite());
+        }
+    }
+
+    private long countStatements(List<Company> companies) {
+        Statistics statistics = entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        assembler.toResponses(companies);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedCompanies(int count) {
+        for (int i = 0; i < count; i++) {
+            Company company = new Company();
+            company.setCompanyName("Company " + (++seq));
+            company.setEmail("company" + seq + "@example.com");
+            company.setCity("Pune");
+            company.setIsActive(true);
+            Company saved = companyRepository.save(company);
+
+            for (Company.CompanyType type : Company.CompanyType.values()) {
+                ServiceEntity service = new ServiceEntity();
+                service.setCompany(saved);
+                service.setType(type);
+                service.setDescription(type.name() + " service");
+                ServiceEntity savedService = serviceRepository.save(service);
+
+                for (int o = 0; o < 3; o++) {
+                    Offering offering = new Offering();
+                    offering.setService(savedService);
+                    offering.setOfferingName("Offering " + o);
+                    offeringRepository.save(offering);
+                }
+            }
+
+            SocialLink socialLink = new SocialLink();
+            socialLink.setCompany(saved);
+            socialLink.setWebsite("https://example.com/" + saved.getCompanyName());
+            socialLinkRepository.save(socialLink);
+        }
+    }
+}
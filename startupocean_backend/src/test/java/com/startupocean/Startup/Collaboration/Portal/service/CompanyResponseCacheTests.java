@@ -0,0 +1,106 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.CompanyResponse;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CompanyResponseCacheTests {
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CompanyResponseCache companyResponseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedProfileViewsAreServedFromCache() {
+
+        Company company = seedCompany("cached@example.com");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        double hitsBefore = hits();
+
+        statistics.clear();
+        companyRepository.findByCompanyIdAndIsActiveTrue(company.getCompanyId());
+        long entityLookupStatements = statistics.getPrepareStatementCount();
+
+        CompanyResponse first = (CompanyResponse) companyService.getCompanyById(company.getCompanyId()).getData();
+        statistics.clear();
+        CompanyResponse second = (CompanyResponse) companyService.getCompanyById(company.getCompanyId()).getData();
+
+        assertSame(first, second);
+        assertEquals(entityLookupStatements, statistics.getPrepareStatementCount());
+        assertEquals(hitsBefore + 1, hits());
+    }
+
+    @Test
+    void softDeleteEvictsTheCachedResponse() {
+
+        Company company = seedCompany("deleted@example.com");
+        Company other = seedCompany("kept@example.com");
+        companyService.getCompanyById(company.getCompanyId());
+        companyService.getCompanyById(other.getCompanyId());
+        assertNotNull(companyResponseCache.peek(company.getCompanyId()));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(company.getEmail(), null, List.of()));
+        assertTrue(companyService.deleteCompany(company.getCompanyId()).isSuccess());
+
+        assertNull(companyResponseCache.peek(company.getCompanyId()));
+        assertNotNull(companyResponseCache.peek(other.getCompanyId()));
+        assertThrows(RuntimeException.class, () -> companyService.getCompanyById(company.getCompanyId()));
+        assertNull(companyResponseCache.peek(company.getCompanyId()));
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CompanyResponseCache.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    private Company seedCompany(String email) {
+        Company company = new Company();
+        company.setCompanyName("Cached Co");
+        company.setEmail(email);
+        company.setCity("Pune");
+        company.setIsActive(true);
+        return companyRepository.save(company);
+    }
+}
@@ -0,0 +1,180 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the LIKE search against the tsvector search on a synthetic directory
+ * of 100k companies. Needs a scratch PostgreSQL database, e.g.
+ * {@code mvn test -Dtest=CompanySearchBenchmark -Dbenchmark.postgres.url=jdbc:postgresql://localhost/bench
+ * -Dbenchmark.postgres.user=postgres -Dbenchmark.postgres.password=postgres}.
+ * Everything is created in, and dropped with, the {@code search_benchmark} schema.
+ */
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+class CompanySearchBenchmark {
+
+    private static final int COMPANIES = 100_000;
+    private static final int ITERATIONS = 25;
+
+    private static final String LIKE_SQL = """
+            SELECT DISTINCT c.company_id, c.company_name, c.city, c.created_at
+            FROM companies c
+            LEFT JOIN services s ON s.company_id = c.company_id
+            WHERE c.is_active = true
+            AND (
+                LOWER(c.company_name) LIKE LOWER(CONCAT('%', ?, '%'))
+                OR LOWER(s.description) LIKE LOWER(CONCAT('%', ?, '%'))
+            )
+            """;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void createDirectory() throws SQLException {
+
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.postgres.url"),
+                System.getProperty("benchmark.postgres.user", "postgres"),
+                System.getProperty("benchmark.postgres.password", ""));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS search_benchmark CASCADE");
+            statement.execute("CREATE SCHEMA search_benchmark");
+            statement.execute("SET search_path TO search_benchmark");
+
+            statement.execute("""
+                    CREATE TABLE companies (
+                        company_id BIGINT PRIMARY KEY,
+                        company_name VARCHAR(255) NOT NULL,
+                        city VARCHAR(255),
+                        is_active BOOLEAN,
+                        created_at TIMESTAMP
+                    )""");
+            statement.execute("""
+                    CREATE TABLE services (
+                        service_id BIGINT PRIMARY KEY,
+                        company_id BIGINT NOT NULL,
+                        description VARCHAR(250) NOT NULL
+                    )""");
+            statement.execute("""
+                    CREATE TABLE offerings (
+                        offering_id BIGSERIAL PRIMARY KEY,
+                        service_id BIGINT NOT NULL,
+                        offering_name VARCHAR(255) NOT NULL,
+                        is_active BOOLEAN
+                    )""");
+
+            statement.execute("""
+                    INSERT INTO companies
+                    SELECT g, 'Company ' || md5(g::text), (ARRAY['Pune','Mumbai','Bengaluru','Delhi'])[1 + g %% 4],
+                           true, now() - (g || ' minutes')::interval
+                    FROM generate_series(1, %d) g""".formatted(COMPANIES));
+            statement.execute("""
+                    INSERT INTO services
+                    SELECT g, g, (ARRAY['fintech payments platform','cloud hosting and devops',
+                                        'legal and compliance advisory','digital marketing agency',
+                                        'healthtech diagnostics'])[1 + g %% 5] || ' ' || md5(g::text)
+                    FROM generate_series(1, %d) g""".formatted(COMPANIES));
+            statement.execute("""
+                    INSERT INTO offerings (service_id, offering_name, is_active)
+                    SELECT g, (ARRAY['Payments','Accounting','Branding','SEO','Kubernetes','Audits'])[1 + (g + k) %% 6], true
+                    FROM generate_series(1, %d) g, generate_series(1, 3) k""".formatted(COMPANIES));
+            statement.execute("CREATE INDEX ON services (company_id)");
+            statement.execute("CREATE INDEX ON offerings (service_id)");
+            statement.execute("ANALYZE");
+
+            statement.execute(CompanyFullTextSearchService.CREATE_TABLE_SQL);
+            statement.execute(CompanyFullTextSearchService.CREATE_INDEX_SQL);
+            statement.execute("INSERT INTO company_search_documents (company_id, document, updated_at) "
+                    + CompanyFullTextSearchService.DOCUMENT_BULK_SQL);
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void dropDirectory() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS search_benchmark CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    void compareLikeAndFullTextSearch() throws SQLException {
+
+        String fullTextSql = CompanyFullTextSearchService.SEARCH_SQL
+                .replace(":query", "?")
+                .replace(":limit", "?");
+
+        // Broad terms match 20-30% of the directory; the company-name hash matches one row.
+        for (String keyword : new String[]{"fintech", "kubernetes", "compliance", md5("4242")}) {
+
+            double likeMillis = medianMillis(LIKE_SQL, keyword, keyword);
+            double fullTextMillis = medianMillis(fullTextSql, keyword, keyword,
+                    CompanyService.MAX_RANKED_RESULTS);
+
+            System.out.printf("keyword=%-32s LIKE median=%8.2f ms   FTS median=%8.2f ms%n",
+                    keyword, likeMillis, fullTextMillis);
+
+            assertTrue(fullTextMillis > 0 && likeMillis > 0);
+        }
+    }
+
+    private static String md5(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double medianMillis(String sql, Object... params) throws SQLException {
+
+        double[] samples = new double[ITERATIONS];
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+
+            for (int warmup = 0; warmup < 3; warmup++) {
+                drain(statement);
+            }
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                drain(statement);
+                samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+        }
+
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private static void drain(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.SuggestionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompanySuggestIndexTests {
+
+    private CompanySuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CompanySuggestIndex(null, null, null, null);
+        index.index(1L, "Acme Payments", "Pune", List.of("Payment Gateway", "Cloud Hosting"));
+        index.index(2L, "Paytrail", "Mumbai", List.of("Cloud Hosting"));
+        index.index(3L, "Northwind", "Pune", List.of("Cloud Hosting", "Cloud Security"));
+        index.rebuild();
+    }
+
+    @Test
+    void matchesFromEveryWordStartOnly() {
+        assertEquals(List.of("Acme Payments", "Payment Gateway", "Paytrail"), texts("pay", 10));
+        assertEquals(List.of("Acme Payments"), texts("  ACME   pay", 10));
+        assertTrue(index.suggest("cme", 10).isEmpty());
+        assertTrue(index.suggest("ments", 10).isEmpty());
+    }
+
+    @Test
+    void ranksByHowManyCompaniesUseATerm() {
+        assertEquals(List.of("Cloud Hosting", "Cloud Security"), texts("cloud", 10));
+        // Pune is used twice; ties go alphabetically
+        assertEquals(List.of("Pune", "Acme Payments"), texts("p", 2));
+
+        List<SuggestionResponse> company = index.suggest("north", 10);
+        assertEquals("COMPANY", company.get(0).getType());
+        assertEquals(3L, company.get(0).getCompanyId());
+        assertEquals("CITY", index.suggest("mum", 10).get(0).getType());
+    }
+
+    @Test
+    void keepsTheBestTopKPerPrefix() {
+        for (long companyId = 10; companyId < 40; companyId++) {
+            index.index(companyId, "Zeta " + companyId, null, List.of());
+        }
+        index.index(40L, "Zeta Zero", null, List.of("Zeta Platform"));
+        index.index(41L, "Zeta One", null, List.of("Zeta Platform"));
+        index.rebuild();
+
+        List<String> texts = texts("zeta", 50);
+        assertEquals(CompanySuggestIndex.TOP_K, texts.size());
+        assertEquals("Zeta Platform", texts.get(0));
+        assertEquals(List.of("Zeta 10", "Zeta 11", "Zeta 12"), texts.subList(1, 4));
+    }
+
+    @Test
+    void reindexedAndRemovedCompaniesChangeAfterRebuild() {
+        index.index(2L, "Ledgerly", "Mumbai", List.of());
+        index.remove(3L);
+        assertEquals(List.of("Acme Payments", "Payment Gateway", "Paytrail"), texts("pay", 10));
+
+        index.rebuild();
+        assertEquals(List.of("Acme Payments", "Payment Gateway"), texts("pay", 10));
+        assertEquals(List.of("Ledgerly"), texts("led", 10));
+        assertTrue(index.suggest("north", 10).isEmpty());
+        assertEquals(List.of("Cloud Hosting"), texts("cloud", 10));
+    }
+
+    private List<String> texts(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(SuggestionResponse::getText).toList();
+    }
+}
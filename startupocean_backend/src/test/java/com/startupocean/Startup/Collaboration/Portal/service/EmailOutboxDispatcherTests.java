@@ -0,0 +1,208 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.WorkloadExecutor;
+import com.startupocean.Startup.Collaboration.Portal.entity.EmailOutbox;
+import com.startupocean.Startup.Collaboration.Portal.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailOutboxDispatcherTests {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearOutbox() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void emailsAreSentOnlyIfTheirTransactionCommits() throws Exception {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            emailService.sendEmail("rolled-back@example.com", "Hello", "<p>Hi</p>");
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> {
+            for (String to : List.of("a@example.com", "b@example.com", "c@example.com")) {
+                emailService.sendEmail(to, "Hello", "<p>Hi</p>");
+            }
+        });
+        assertEquals(3, emailOutboxRepository.count());
+
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+
+            EmailOutboxDispatcher dispatcher = dispatcher(server.getPort());
+            assertEquals(new EmailOutboxDispatcher.Batch(3, 3), dispatcher.dispatchBatch(EmailOutbox.Lane.BULK));
+
+            assertEquals(3, server.getMessages());
+            assertEquals(0, emailOutboxRepository.count());
+        }
+    }
+
+    @Test
+    void failedEmailsAreRetriedWithBackoff() throws Exception {
+
+        int closedPort;
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+            closedPort = server.getPort();
+        }
+        emailService.sendEmail("retry@example.com", "Hello", "<p>Hi</p>");
+
+        EmailOutboxDispatcher dispatcher = dispatcher(closedPort);
+        assertEquals(new EmailOutboxDispatcher.Batch(1, 0), dispatcher.dispatchBatch(EmailOutbox.Lane.BULK));
+
+        EmailOutbox email = emailOutboxRepository.findAll().get(0);
+        assertEquals(EmailOutbox.OutboxStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+
+        // not due again until the backoff has passed
+        assertEquals(new EmailOutboxDispatcher.Batch(0, 0), dispatcher.dispatchBatch(EmailOutbox.Lane.BULK));
+
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(120), dispatcher.backoff(3));
+        assertEquals(Duration.ofHours(6), dispatcher.backoff(40));
+    }
+
+    @Test
+    void otpsAreSentOnTheirOwnLane() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            emailService.sendEmail("bulk-" + i + "@example.com", "Hello", "<p>Hi</p>");
+        }
+        emailService.sendOtpEmail("otp@example.com", "123456", null);
+
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+
+            MeterRegistry meterRegistry = new SimpleMeterRegistry();
+            EmailOutboxDispatcher dispatcher = dispatcher(server.getPort(), meterRegistry);
+
+            dispatcher.refreshQueueDepths();
+            assertEquals(1, meterRegistry.get("mail.lane.queue.depth").tag("lane", "priority").gauge().value());
+            assertEquals(3, meterRegistry.get("mail.lane.queue.depth").tag("lane", "bulk").gauge().value());
+
+            assertEquals(new EmailOutboxDispatcher.Batch(1, 1), dispatcher.dispatchBatch(EmailOutbox.Lane.PRIORITY));
+            assertEquals(1, server.getMessages());
+            assertEquals(3, emailOutboxRepository.count());
+            assertEquals(1, meterRegistry.get("mail.lane.latency").tag("lane", "priority").timer().count());
+
+            assertEquals(new EmailOutboxDispatcher.Batch(3, 3), dispatcher.dispatchBatch(EmailOutbox.Lane.BULK));
+            dispatcher.refreshQueueDepths();
+            assertEquals(0, meterRegistry.get("mail.lane.queue.depth").tag("lane", "bulk").gauge().value());
+        }
+    }
+
+    @Test
+    void nothingIsClaimedWhileTheBreakerIsOpen() throws Exception {
+
+        int closedPort;
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+            closedPort = server.getPort();
+        }
+        SmtpCircuitBreaker breaker = new SmtpCircuitBreaker(new SimpleMeterRegistry(), 1, Duration.ofSeconds(5),
+                Duration.ofMinutes(1));
+        EmailOutboxDispatcher dispatcher = dispatcher(closedPort, new SimpleMeterRegistry(), breaker);
+
+        emailService.sendEmail("first@example.com", "Hello", "<p>Hi</p>");
+        assertEquals(new EmailOutboxDispatcher.Batch(1, 0), dispatcher.dispatchBatch(EmailOutbox.Lane.BULK));
+        assertEquals(SmtpCircuitBreaker.State.OPEN, breaker.getState());
+
+        emailService.sendEmail("second@example.com", "Hello", "<p>Hi</p>");
+        assertEquals(new EmailOutboxDispatcher.Batch(0, 0), dispatcher.dispatchBatch(EmailOutbox.Lane.BULK));
+
+        EmailOutbox second = emailOutboxRepository.findAll().stream()
+                .filter(email -> email.getRecipient().equals("second@example.com"))
+                .findFirst().orElseThrow();
+        assertEquals(0, second.getAttempts());
+        assertTrue(second.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(1)));
+    }
+
+    @Test
+    void pollLeavesBulkMailToTheBulkMailExecutor() throws Exception {
+
+        emailService.sendEmail("bulk@example.com", "Hello", "<p>Hi</p>");
+
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            WorkloadExecutor bulkMailExecutor = bulkMailExecutor(meterRegistry);
+            CountDownLatch release = new CountDownLatch(1);
+            bulkMailExecutor.execute(() -> await(release));
+
+            EmailOutboxDispatcher dispatcher = dispatcher(server.getPort(), meterRegistry,
+                    MailDispatcherTests.breaker(), bulkMailExecutor);
+
+            // returns while the bulk mail executor is still busy
+            dispatcher.dispatch();
+            assertEquals(0, server.getMessages());
+            assertEquals(1, bulkMailExecutor.getQueued());
+
+            release.countDown();
+            for (int i = 0; i < 50 && emailOutboxRepository.count() > 0; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, server.getMessages());
+            bulkMailExecutor.shutdown();
+        }
+    }
+
+    private EmailOutboxDispatcher dispatcher(int port) {
+        return dispatcher(port, new SimpleMeterRegistry());
+    }
+
+    private EmailOutboxDispatcher dispatcher(int port, MeterRegistry meterRegistry) {
+        return dispatcher(port, meterRegistry, MailDispatcherTests.breaker());
+    }
+
+    private EmailOutboxDispatcher dispatcher(int port, MeterRegistry meterRegistry, SmtpCircuitBreaker breaker) {
+        return dispatcher(port, meterRegistry, breaker, bulkMailExecutor(meterRegistry));
+    }
+
+    private EmailOutboxDispatcher dispatcher(int port, MeterRegistry meterRegistry, SmtpCircuitBreaker breaker,
+                                             WorkloadExecutor bulkMailExecutor) {
+        MailDispatcher mailDispatcher = MailDispatcherTests.dispatcher(port, breaker, 1, 100, 1_000, 1_000);
+        WorkloadExecutor mailExecutor = new WorkloadExecutor("mail", 1, 1,
+                WorkloadExecutor.Saturation.DROP_OLDEST, false, meterRegistry);
+        return new EmailOutboxDispatcher(emailOutboxRepository, mailDispatcher, transactionManager, meterRegistry,
+                mailExecutor, bulkMailExecutor, "noreply@startupocean.example", true, 50, Duration.ofMinutes(5),
+                Duration.ofSeconds(30), Duration.ofHours(6), 10);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static WorkloadExecutor bulkMailExecutor(MeterRegistry meterRegistry) {
+        return new WorkloadExecutor("bulk-mail", 1, 1, WorkloadExecutor.Saturation.DROP_OLDEST, false, meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmailTemplateTests {
+
+    @Test
+    void placeholdersAreFilledAndEscaped() {
+
+        EmailTemplate template = EmailTemplate.compile("<h3>{{companyName}}</h3><p>{{ OTP }} {{missing}} {{}} {{{OTP}}}</p>");
+
+        assertEquals(4, template.placeholderCount());
+        assertEquals("<h3>Tom &amp; Jerry&#39;s &lt;b&gt;</h3><p>123456 {{missing}} {{}} {123456}</p>",
+                template.render(Map.of("companyName", "Tom & Jerry's <b>", "OTP", "123456")));
+
+        StringBuilder out = new StringBuilder("to: ");
+        EmailTemplate.compile("{{a}}{{b}}").renderTo(out, Map.of("a", "x", "b", "y"));
+        assertEquals("to: xy", out.toString());
+        assertEquals("no placeholders", EmailTemplate.compile("no placeholders").render(Map.of()));
+    }
+}
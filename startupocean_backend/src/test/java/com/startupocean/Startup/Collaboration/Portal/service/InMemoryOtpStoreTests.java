@@ -0,0 +1,151 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryOtpStoreTests {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void codesExpireAndAreSweptByTheWheel() {
+
+        InMemoryOtpStore store = store(10, 5);
+        long now = System.currentTimeMillis();
+
+        assertTrue(store.put("early@example.com", 111111, now));
+        assertTrue(store.put("late@example.com", 222222, now + 5 * MINUTE));
+        // a new code replaces the old one and its expiry
+        assertTrue(store.put("late@example.com", 333333, now + 6 * MINUTE));
+        assertEquals(2, store.size());
+
+        store.sweep(now + 10 * MINUTE + 1_000);
+        assertEquals(1, store.size());
+        assertEquals(OtpStore.Result.NOT_REQUESTED, store.verify("early@example.com", "111111", now + 10 * MINUTE + 1_000));
+
+        // not swept at the first code's expiry, only at the second's
+        store.sweep(now + 15 * MINUTE + 1_000);
+        assertEquals(1, store.size());
+        assertEquals(OtpStore.Result.EXPIRED, store.verify("late@example.com", "333333", now + 16 * MINUTE));
+        assertEquals(0, store.size());
+
+        assertTrue(store.put("late@example.com", 444444, now + 20 * MINUTE));
+        store.sweep(now + 31 * MINUTE);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void wrongGuessesAndTheCapAreEnforcedPerEmail() {
+
+        InMemoryOtpStore store = store(2, 3);
+        long now = System.currentTimeMillis();
+
+        assertTrue(store.put("a@example.com", 123456, now));
+        assertTrue(store.put("b@example.com", 123456, now));
+        assertFalse(store.put("c@example.com", 123456, now));
+        // a new code for an email that has one still fits
+        assertTrue(store.put("b@example.com", 654321, now));
+
+        assertEquals(OtpStore.Result.INVALID, store.verify("a@example.com", "000000", now));
+        assertEquals(OtpStore.Result.INVALID, store.verify("a@example.com", "not a code", now));
+        assertEquals(OtpStore.Result.TOO_MANY_ATTEMPTS, store.verify("a@example.com", "123456x", now));
+        assertEquals(OtpStore.Result.NOT_REQUESTED, store.verify("a@example.com", "123456", now));
+
+        assertEquals(OtpStore.Result.VERIFIED, store.verify("b@example.com", "654321", now));
+        assertEquals(OtpStore.Result.NOT_REQUESTED, store.verify("b@example.com", "654321", now));
+        assertTrue(store.put("c@example.com", 123456, now));
+    }
+
+    @Test
+    void concurrentRequestsKeepOneConsistentRecordPerEmail() throws Exception {
+
+        int threads = 16;
+        int emails = 64;
+        InMemoryOtpStore store = store(emails, 5);
+        long now = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sizeOutOfRange = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    String email = "user" + random.nextInt(emails) + "@example.com";
+                    int code = 100000 + random.nextInt(900000);
+                    long at = now + random.nextInt(30) * MINUTE;
+                    store.put(email, code, at);
+                    if (random.nextBoolean()) {
+                        store.verify(email, "x", at);
+                    }
+                    store.verify(email, Integer.toString(code), at + random.nextInt(2) * MINUTE);
+                }
+                return null;
+            }));
+        }
+        Future<?> sweeper = pool.submit(() -> {
+            start.await();
+            for (int i = 0; i < 5_000; i++) {
+                store.sweep(now + ThreadLocalRandom.current().nextInt(40) * MINUTE);
+                if (store.size() < 0 || store.size() > emails) {
+                    sizeOutOfRange.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        sweeper.get(1, TimeUnit.MINUTES);
+
+        assertEquals(0, sizeOutOfRange.get());
+        // every code left is in the wheel and counted exactly once
+        store.sweep(now + 60 * MINUTE);
+        assertEquals(0, store.size());
+
+        // of many guesses of the same code at once, exactly one wins
+        assertTrue(store.put("race@example.com", 123456, now));
+        List<Future<OtpStore.Result>> guesses = new ArrayList<>();
+        CountDownLatch go = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            guesses.add(pool.submit(() -> {
+                go.await();
+                return store.verify("race@example.com", "123456", now);
+            }));
+        }
+        go.countDown();
+        int verified = 0;
+        for (Future<OtpStore.Result> guess : guesses) {
+            if (guess.get(1, TimeUnit.MINUTES) == OtpStore.Result.VERIFIED) {
+                verified++;
+            }
+        }
+        pool.shutdown();
+        assertEquals(1, verified);
+        assertEquals(0, store.size());
+    }
+
+    static InMemoryOtpStore store(int maxEntries, int maxAttempts) {
+        return new InMemoryOtpStore(new SimpleMeterRegistry(), 10, Duration.ofSeconds(1), maxEntries, maxAttempts);
+    }
+}
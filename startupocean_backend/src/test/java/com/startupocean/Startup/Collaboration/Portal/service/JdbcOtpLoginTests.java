@@ -0,0 +1,72 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.dto.OtpRequest;
+import com.startupocean.Startup.Collaboration.Portal.entity.Company;
+import com.startupocean.Startup.Collaboration.Portal.repository.CompanyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Login OTPs through {@link AuthService} with the shared {@link JdbcOtpStore}, whose
+ * attempt counting must survive the rollback of the failed login. Needs a scratch
+ * PostgreSQL database, e.g. {@code mvn test -Dtest=JdbcOtpLoginTests
+ * -Dotp.postgres.url=jdbc:postgresql://localhost/bench
+ * -Dotp.postgres.user=postgres -Dotp.postgres.password=postgres}.
+ */
+@EnabledIfSystemProperty(named = "otp.postgres.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${otp.postgres.url}",
+        "spring.datasource.username=${otp.postgres.user:postgres}",
+        "spring.datasource.password=${otp.postgres.password:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "otp.store.type=jdbc"
+})
+@ActiveProfiles("test")
+class JdbcOtpLoginTests {
+
+    private static final String EMAIL = "login-guess@example.com";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private OtpStore otpStore;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void failedLoginsStillCountTowardsTheAttemptLimit() {
+
+        Company company = new Company();
+        company.setCompanyName("Login Guessing");
+        company.setEmail(EMAIL);
+        company.setIsActive(true);
+        companyRepository.save(company);
+        otpStore.put(company.getEmail(), 123456);
+
+        for (int i = 0; i < 4; i++) {
+            RuntimeException invalid = assertThrows(RuntimeException.class, () -> login("000000"));
+            assertEquals("Invalid OTP", invalid.getMessage());
+        }
+        RuntimeException exhausted = assertThrows(RuntimeException.class, () -> login("000000"));
+        assertEquals("Too many wrong attempts, please request a new OTP", exhausted.getMessage());
+
+        RuntimeException gone = assertThrows(RuntimeException.class, () -> login("123456"));
+        assertEquals("OTP not requested", gone.getMessage());
+    }
+
+    private void login(String code) {
+        OtpRequest request = new OtpRequest();
+        request.setEmail(EMAIL);
+        request.setOtp(code);
+        authService.verifyLoginOtp(request);
+    }
+}
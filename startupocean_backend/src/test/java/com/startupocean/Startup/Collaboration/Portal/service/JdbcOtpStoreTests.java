@@ -0,0 +1,180 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.DatabasePlatform;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two {@link JdbcOtpStore}s with their own connections to one PostgreSQL database, as
+ * two backend nodes behind a load balancer would have. Needs a scratch database (the
+ * table is created and dropped), e.g.
+ * {@code mvn test -Dtest=JdbcOtpStoreTests
+ * -Dotp.postgres.url=jdbc:postgresql://localhost/bench
+ * -Dotp.postgres.user=postgres -Dotp.postgres.password=postgres}.
+ */
+@EnabledIfSystemProperty(named = "otp.postgres.url", matches = ".+")
+class JdbcOtpStoreTests {
+
+    private static JdbcTemplate jdbcTemplate;
+    private static JdbcOtpStore nodeA;
+    private static JdbcOtpStore nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = node();
+        nodeB = node();
+        jdbcTemplate = new JdbcTemplate(dataSource());
+    }
+
+    @AfterAll
+    static void dropTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS pending_otps");
+    }
+
+    @Test
+    void codesSentByOneNodeAreVerifiedByTheOther() {
+
+        nodeA.put("two-nodes@example.com", 123456);
+        assertEquals(OtpStore.Result.INVALID, nodeB.verify("two-nodes@example.com", "654321"));
+        assertEquals(OtpStore.Result.INVALID, nodeB.verify("two-nodes@example.com", "0123456"));
+        assertEquals(OtpStore.Result.VERIFIED, nodeB.verify("two-nodes@example.com", "123456"));
+        assertEquals(OtpStore.Result.NOT_REQUESTED, nodeA.verify("two-nodes@example.com", "123456"));
+
+        // a new code from either node replaces the old one and its attempts
+        nodeA.put("resent@example.com", 111111);
+        nodeA.verify("resent@example.com", "000000");
+        nodeB.put("resent@example.com", 222222);
+        assertEquals(OtpStore.Result.INVALID, nodeA.verify("resent@example.com", "111111"));
+        assertEquals(OtpStore.Result.VERIFIED, nodeA.verify("resent@example.com", "222222"));
+    }
+
+    @Test
+    void wrongGuessesCountAcrossNodes() {
+
+        nodeA.put("guessed@example.com", 123456);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(OtpStore.Result.INVALID, nodeA.verify("guessed@example.com", "000000"));
+            assertEquals(OtpStore.Result.INVALID, nodeB.verify("guessed@example.com", "000000"));
+        }
+        assertEquals(OtpStore.Result.TOO_MANY_ATTEMPTS, nodeB.verify("guessed@example.com", "000000"));
+        assertEquals(OtpStore.Result.NOT_REQUESTED, nodeA.verify("guessed@example.com", "123456"));
+    }
+
+    @Test
+    void expiredCodesAreRefusedAndCleanedUpInBatches() {
+
+        for (int i = 0; i < 5; i++) {
+            nodeA.put("expired-" + i + "@example.com", 123456);
+        }
+        nodeB.put("fresh@example.com", 123456);
+        jdbcTemplate.update("UPDATE pending_otps SET expires_at = now() - INTERVAL '1 second' "
+                + "WHERE email LIKE 'expired-%'");
+
+        assertEquals(OtpStore.Result.EXPIRED, nodeB.verify("expired-0@example.com", "123456"));
+        nodeA.deleteExpired();
+
+        assertEquals(0, count("email LIKE 'expired-%'"));
+        assertEquals(1, count("email = 'fresh@example.com'"));
+    }
+
+    @Test
+    void aCodeIsVerifiedOnceWhenBothNodesRace() throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            for (int round = 0; round < 20; round++) {
+                String email = "race-" + round + "@example.com";
+                nodeA.put(email, 123456);
+
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<OtpStore.Result>> guesses = new ArrayList<>();
+                for (int t = 0; t < 16; t++) {
+                    JdbcOtpStore node = t % 2 == 0 ? nodeA : nodeB;
+                    guesses.add(pool.submit(() -> {
+                        go.await();
+                        return node.verify(email, "123456");
+                    }));
+                }
+                go.countDown();
+
+                int verified = 0;
+                for (Future<OtpStore.Result> guess : guesses) {
+                    if (guess.get(1, TimeUnit.MINUTES) == OtpStore.Result.VERIFIED) {
+                        verified++;
+                    }
+                }
+                assertEquals(1, verified);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentWrongGuessesCannotOutrunTheAttemptLimit() throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            nodeA.put("burst@example.com", 123456);
+
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<OtpStore.Result>> guesses = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                JdbcOtpStore node = t % 2 == 0 ? nodeA : nodeB;
+                String wrong = Integer.toString(200000 + t);
+                guesses.add(pool.submit(() -> {
+                    go.await();
+                    return node.verify("burst@example.com", wrong);
+                }));
+            }
+            go.countDown();
+
+            Map<OtpStore.Result, Integer> results = new EnumMap<>(OtpStore.Result.class);
+            for (Future<OtpStore.Result> guess : guesses) {
+                results.merge(guess.get(1, TimeUnit.MINUTES), 1, Integer::sum);
+            }
+            // five guesses were checked against the code, the rest found it gone
+            assertEquals(4, results.get(OtpStore.Result.INVALID));
+            assertEquals(1, results.get(OtpStore.Result.TOO_MANY_ATTEMPTS));
+            assertEquals(11, results.get(OtpStore.Result.NOT_REQUESTED));
+            assertEquals(OtpStore.Result.NOT_REQUESTED, nodeB.verify("burst@example.com", "123456"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long count(String where) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM pending_otps WHERE " + where, Long.class);
+    }
+
+    private static JdbcOtpStore node() {
+        DriverManagerDataSource dataSource = dataSource();
+        JdbcOtpStore store = new JdbcOtpStore(new DatabasePlatform(dataSource), new JdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource), 10, 5, 2);
+        store.initialize();
+        return store;
+    }
+
+    private static DriverManagerDataSource dataSource() {
+        return new DriverManagerDataSource(System.getProperty("otp.postgres.url"),
+                System.getProperty("otp.postgres.user", "postgres"),
+                System.getProperty("otp.postgres.password", ""));
+    }
+}
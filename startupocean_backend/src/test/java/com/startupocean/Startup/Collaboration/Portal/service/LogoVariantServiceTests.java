@@ -0,0 +1,53 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.config.WorkloadExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogoVariantServiceTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void undecodableLogosAreTriedOnce() throws IOException {
+
+        LogoStore logoStore = new LogoStore(directory.toString());
+        AtomicInteger submitted = new AtomicInteger();
+        WorkloadExecutor inline = new WorkloadExecutor("media", 1, 1,
+                WorkloadExecutor.Saturation.SHED, false, new SimpleMeterRegistry()) {
+            @Override
+            public void execute(Runnable task) {
+                submitted.incrementAndGet();
+                task.run();
+            }
+        };
+        LogoVariantService variants = new LogoVariantService(logoStore, inline, 50_000_000);
+
+        // PNG magic followed by noise: a PNG reader is found but cannot decode it
+        byte[] corrupt = new byte[4096];
+        new Random(3).nextBytes(corrupt);
+        System.arraycopy(new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}, 0, corrupt, 0, 8);
+        String hash = logoStore.store(new ByteArrayInputStream(corrupt)).getHash();
+
+        assertNull(variants.findOrSubmit(hash, 64));
+        assertEquals(1, submitted.get());
+        assertTrue(logoStore.isUnresizable(hash));
+
+        for (int size : LogoVariantService.SIZES) {
+            assertNull(variants.findOrSubmit(hash, size));
+        }
+        assertEquals(1, submitted.get());
+    }
+}
@@ -0,0 +1,183 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import com.startupocean.Startup.Collaboration.Portal.entity.EmailOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailDispatcherTests {
+
+    @Test
+    void messagesShareConnectionsUntilTheirLimit() throws Exception {
+
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+
+            MailDispatcher dispatcher = dispatcher(server, 2, 10, 10_000, 10_000);
+
+            assertEquals(25, dispatcher.sendAll(messages(dispatcher, 25)));
+            assertEquals(3, dispatcher.getConnectionsOpened());
+
+            ExecutorService senders = Executors.newFixedThreadPool(6);
+            List<Future<?>> sends = new ArrayList<>();
+            for (MimeMessage message : messages(dispatcher, 30)) {
+                sends.add(senders.submit(() -> {
+                    dispatcher.send(message);
+                    return null;
+                }));
+            }
+            for (Future<?> send : sends) {
+                send.get();
+            }
+            senders.shutdown();
+            dispatcher.shutdown();
+
+            assertEquals(55, server.getMessages());
+            // 55 messages at 10 per connection, never more than 2 open at once
+            assertTrue(dispatcher.getConnectionsOpened() <= 8, "opened " + dispatcher.getConnectionsOpened());
+        }
+    }
+
+    @Test
+    void quotasAreEnforced() throws Exception {
+
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+
+            MailDispatcher dispatcher = dispatcher(server, 1, 1_000, 20, 45);
+
+            long start = System.nanoTime();
+            assertEquals(40, dispatcher.sendAll(messages(dispatcher, 40)));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // a burst of 20, then 20 more at 20 per second
+            assertTrue(elapsedMillis >= 900, "took " + elapsedMillis + " ms");
+
+            assertEquals(5, dispatcher.sendAll(messages(dispatcher, 10)));
+            assertThrows(MailDispatcher.QuotaExceededException.class,
+                    () -> dispatcher.send(messages(dispatcher, 1).get(0)));
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void priorityLaneKeepsItsConnectionsAndShareOfTheDailyQuota() throws Exception {
+
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("localhost");
+            sender.setPort(server.getPort());
+            MailDispatcher dispatcher = new MailDispatcher(sender, breaker(), 3, 1_000, Duration.ofMinutes(1),
+                    1_000, 20, Duration.ofSeconds(30), 1, 100, 5);
+            List<MessagingException> failures = new ArrayList<>();
+
+            // bulk mail stops 5 short of the daily quota, on its own two connections
+            assertEquals(15, dispatcher.sendAll(EmailOutbox.Lane.BULK, messages(dispatcher, 20),
+                    (message, e) -> failures.add(e)));
+            assertEquals(5, failures.size());
+            assertTrue(failures.stream().allMatch(e -> e instanceof MailDispatcher.QuotaExceededException));
+            assertEquals(1, dispatcher.getConnectionsOpened());
+
+            // the reserve is left for priority mail, which opens a connection of its own
+            assertEquals(5, dispatcher.sendAll(EmailOutbox.Lane.PRIORITY, messages(dispatcher, 5),
+                    (message, e) -> failures.add(e)));
+            assertEquals(2, dispatcher.getConnectionsOpened());
+            assertThrows(MailDispatcher.QuotaExceededException.class,
+                    () -> dispatcher.send(messages(dispatcher, 1).get(0)));
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void slowServerOpensTheBreakerUntilAProbeSucceeds() throws Exception {
+
+        try (FakeSmtpServer server = new FakeSmtpServer(Duration.ZERO, Duration.ZERO)) {
+
+            MeterRegistry meterRegistry = new SimpleMeterRegistry();
+            SmtpCircuitBreaker breaker = new SmtpCircuitBreaker(meterRegistry, 2, Duration.ofMillis(150),
+                    Duration.ofMillis(500));
+            MailDispatcher dispatcher = dispatcher(server.getPort(), breaker, 1, 100, 10_000, 10_000);
+            List<MessagingException> failures = new ArrayList<>();
+
+            // MAIL, RCPT and DATA take 100 ms each: two slow sends open the breaker and the rest fail at once
+            server.setCommandLatency(Duration.ofMillis(100));
+            long start = System.nanoTime();
+            assertEquals(2, dispatcher.sendAll(EmailOutbox.Lane.BULK, messages(dispatcher, 10),
+                    (message, e) -> failures.add(e)));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(elapsedMillis < 2_000, "took " + elapsedMillis + " ms");
+            assertEquals(8, failures.size());
+            assertTrue(failures.stream().allMatch(e -> e instanceof MailDispatcher.CircuitOpenException));
+            assertEquals(SmtpCircuitBreaker.State.OPEN, breaker.getState());
+            assertFalse(dispatcher.isAvailable());
+            assertEquals(1, meterRegistry.get("mail.breaker.state").tag("state", "open").gauge().value());
+
+            // a slow probe opens it again
+            Thread.sleep(600);
+            assertTrue(dispatcher.isAvailable());
+            assertEquals(1, dispatcher.sendAll(messages(dispatcher, 2)));
+            assertEquals(SmtpCircuitBreaker.State.OPEN, breaker.getState());
+
+            // a quick one closes it
+            server.setCommandLatency(Duration.ZERO);
+            Thread.sleep(600);
+            assertEquals(3, dispatcher.sendAll(messages(dispatcher, 3)));
+            assertEquals(SmtpCircuitBreaker.State.CLOSED, breaker.getState());
+            assertEquals(1, meterRegistry.get("mail.breaker.state").tag("state", "closed").gauge().value());
+            dispatcher.shutdown();
+        }
+    }
+
+    static MailDispatcher dispatcher(FakeSmtpServer server, int poolSize, int maxMessagesPerConnection,
+                                     int perSecond, int perDay) {
+        return dispatcher(server.getPort(), poolSize, maxMessagesPerConnection, perSecond, perDay);
+    }
+
+    static MailDispatcher dispatcher(int port, int poolSize, int maxMessagesPerConnection,
+                                     int perSecond, int perDay) {
+        return dispatcher(port, breaker(), poolSize, maxMessagesPerConnection, perSecond, perDay);
+    }
+
+    static MailDispatcher dispatcher(int port, SmtpCircuitBreaker breaker, int poolSize, int maxMessagesPerConnection,
+                                     int perSecond, int perDay) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(port);
+        return new MailDispatcher(sender, breaker, poolSize, maxMessagesPerConnection, Duration.ofMinutes(1),
+                perSecond, perDay, Duration.ofSeconds(30), 0, 0, 0);
+    }
+
+    /** A breaker that stays out of the way of tests about something else. */
+    static SmtpCircuitBreaker breaker() {
+        return new SmtpCircuitBreaker(new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    static List<MimeMessage> messages(MailDispatcher dispatcher, int count) throws MessagingException {
+        List<MimeMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = dispatcher.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+            helper.setFrom("noreply@startupocean.example");
+            helper.setTo("member-" + i + "@example.com");
+            helper.setSubject("New Startup Joined StartupOcean");
+            helper.setText("<p>Hello " + i + "</p>", true);
+            messages.add(message);
+        }
+        return messages;
+    }
+}
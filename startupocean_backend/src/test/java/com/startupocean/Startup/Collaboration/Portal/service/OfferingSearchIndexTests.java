@@ -0,0 +1,57 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfferingSearchIndexTests {
+
+    private OfferingSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OfferingSearchIndex(null);
+        index.index(1L, List.of("Payments", "Payment Gateway Integration"));
+        index.index(2L, List.of("Digital Marketing", "SEO"));
+        index.index(3L, List.of("Accounting", "Payroll"));
+    }
+
+    @Test
+    void ranksByBm25AndStemsQueryTerms() {
+        assertEquals(List.of(1L), index.search("payment", 10));
+        assertEquals(List.of(2L), index.search("marketing services", 10));
+        assertEquals(List.of(3L), index.search("accountings", 10));
+    }
+
+    @Test
+    void expandsShortPrefixes() {
+        assertEquals(List.of(1L, 3L), index.search("pay", 10));
+    }
+
+    @Test
+    void reindexingReplacesPreviousOfferings() {
+        index.index(1L, List.of("Cloud Hosting"));
+
+        assertTrue(index.search("payment", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("hosting", 10));
+
+        index.index(1L, List.of());
+        assertTrue(index.search("hosting", 10).isEmpty());
+    }
+
+    @Test
+    void survivesCompaction() {
+        for (int round = 0; round < 3; round++) {
+            for (long companyId = 10; companyId < 1500; companyId++) {
+                index.index(companyId, List.of("Offering " + (companyId % 7), "Kubernetes"));
+            }
+        }
+
+        assertEquals(1490, index.search("kubernetes", 5000).size());
+        assertEquals(List.of(2L), index.search("seo", 10));
+    }
+}
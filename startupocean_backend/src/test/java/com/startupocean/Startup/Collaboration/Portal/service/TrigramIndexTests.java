@@ -0,0 +1,44 @@
+package com.startupocean.Startup.Collaboration.Portal.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTests {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.index(1L, List.of("AmigoNexus", "Fintech Consulting"));
+        index.index(2L, List.of("Ocean Labs", "Digital Marketing"));
+        index.index(3L, List.of("Fintech Hub", "Payments"));
+    }
+
+    @Test
+    void toleratesMisspellings() {
+        assertEquals(List.of(1L), index.search("amigonexsus", 0.4, 10));
+        assertEquals(List.of(1L, 3L), index.search("fintek", 0.4, 10));
+        assertEquals(List.of(2L), index.search("digtal marketng", 0.4, 10));
+    }
+
+    @Test
+    void dropsMatchesBelowThreshold() {
+        assertTrue(index.search("fintek", 0.9, 10).isEmpty());
+        assertTrue(index.search("zzzz", 0.4, 10).isEmpty());
+    }
+
+    @Test
+    void reindexingReplacesPreviousTexts() {
+        index.index(1L, List.of("Cloud Hosting"));
+
+        assertTrue(index.search("amigonexsus", 0.4, 10).isEmpty());
+        assertEquals(List.of(3L), index.search("fintek", 0.4, 10));
+        assertEquals(List.of(1L), index.search("hostng", 0.4, 10));
+    }
+}
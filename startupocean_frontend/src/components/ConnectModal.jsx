@@ -30,7 +30,7 @@ const ConnectModal = ({ company, onClose, onConnect, connectMessage, setConnectM
                     <div className="w-16 h-16 bg-white rounded-2xl flex items-center justify-center overflow-hidden border border-slate-200 flex-shrink-0 shadow-sm group-hover:scale-105 transition-transform duration-300">
                         {company?.companyId && !imgError ? (
                             <img
-                                src={`${API_HOST}/upload/logo/${company.companyId}`}
+                                src={`${API_HOST}/upload/logo/${company.companyId}?size=128`}
                                 alt="Logo"
                                 className="w-full h-full object-cover"
                                 onError={() => setImgError(true)}
@@ -197,7 +197,7 @@ const EnhancedMessagingModal = ({ collaboration, type, onClose }) => {
                         <div className="w-10 h-10 bg-white rounded-full flex items-center justify-center text-teal-600 font-bold overflow-hidden border-2 border-white/20 shrink-0">
                             {company?.companyId && !imgErrorHeader ? (
                                 <img
-                                    src={`${API_BASE_URL}/upload/logo/${company.companyId}`}
+                                    src={`${API_BASE_URL}/upload/logo/${company.companyId}?size=128`}
                                     alt="Logo"
                                     className="w-full h-full object-cover"
                                     onError={() => setImgErrorHeader(true)}
@@ -266,7 +266,7 @@ const EnhancedMessagingModal = ({ collaboration, type, onClose }) => {
                                                         <div className={`w-8 h-8 flex-shrink-0 overflow-hidden rounded-full ${showAvatar ? 'opacity-100' : 'opacity-0'}`}>
                                                             {msg.senderCompanyId && !imgErrorSender ? (
                                                                 <img
-                                                                    src={`${API_BASE_URL}/upload/logo/${msg.senderCompanyId}`}
+                                                                    src={`${API_BASE_URL}/upload/logo/${msg.senderCompanyId}?size=64`}
                                                                     alt="S"
                                                                     className="w-full h-full object-cover"
                                                                     onError={() => setImgErrorSender(true)}
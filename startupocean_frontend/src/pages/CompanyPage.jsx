@@ -45,7 +45,6 @@ const CompanyPage = () => {
   const [imgError, setImgError] = useState(false);
   const logoInputRef = useRef(null);
   const [phoneError, setPhoneError] = useState('');
-  const [logoTimestamp, setLogoTimestamp] = useState(Date.now());
 
   useEffect(() => {
     fetchCompany();
@@ -135,7 +134,6 @@ const CompanyPage = () => {
     try {
       await companyAPI.uploadLogo(company.companyId, formData);
       toast.success('Logo updated successfully! 🎉');
-      setLogoTimestamp(Date.now());
       setImgError(false);
       await fetchCompany();
     } catch (err) {
@@ -325,7 +323,7 @@ const CompanyPage = () => {
                     <div className="w-32 h-32 rounded-2xl border-2 border-dashed border-teal-200 flex items-center justify-center overflow-hidden bg-teal-50/30 group-hover/logo:border-teal-400 transition-colors shadow-inner">
                       {company?.logoUrl && !imgError ? (
                         <img
-                          src={`${API_HOST}${company.logoUrl}?t=${logoTimestamp}`}
+                          src={`${API_HOST}${company.logoUrl}`}
                           alt="Company Logo"
                           className="w-full h-full object-cover"
                           onError={() => setImgError(true)}
@@ -202,7 +202,7 @@ const ConversationItem = ({ collaboration, onClick, lastMessage, unreadCount, fo
                     <div className="w-14 h-14 bg-gradient-to-br from-teal-400 to-teal-600 rounded-full flex items-center justify-center text-white text-sm font-bold shadow-md overflow-hidden">
                         {company?.companyId && !imgError ? (
                             <img
-                                src={`${API_BASE_URL}/upload/logo/${company.companyId}`}
+                                src={`${API_BASE_URL}/upload/logo/${company.companyId}?size=128`}
                                 alt="Logo"
                                 className="w-full h-full object-cover"
                                 onError={() => setImgError(true)}